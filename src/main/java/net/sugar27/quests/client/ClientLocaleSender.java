@@ -33,7 +33,7 @@ public final class ClientLocaleSender {
             return;
         }
         ClientPacketDistributor.sendToServer(new ClientLanguagePacket(locale));
-        ClientPacketDistributor.sendToServer(new QuestSyncRequestPacket());
+        ClientPacketDistributor.sendToServer(new QuestSyncRequestPacket(false));
         sent = true;
         lastLocale = locale;
     }
@@ -38,7 +38,7 @@ public final class KeyBindings {
             Minecraft minecraft = Minecraft.getInstance();
             if (minecraft.player != null) {
                 if (QuestClientState.getQuestDefinitions().isEmpty()) {
-                    ClientPacketDistributor.sendToServer(new QuestSyncRequestPacket());
+                    ClientPacketDistributor.sendToServer(new QuestSyncRequestPacket(true));
                 }
                 minecraft.setScreen(new QuestScreen());
             }
@@ -0,0 +1,112 @@
+// root/src/main/java/net/sugar27/quests/client/QuestCatalogCache.java
+
+package net.sugar27.quests.client;
+
+import net.minecraft.Util;
+import net.minecraft.client.Minecraft;
+import net.minecraft.client.multiplayer.ServerData;
+import net.sugar27.quests.ShugaQuestsMod;
+import net.sugar27.quests.network.QuestCatalogFrames;
+
+import java.io.IOException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Comparator;
+import java.util.List;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+// Disk cache of encoded quest catalogs, keyed by server address and catalog hash.
+public final class QuestCatalogCache {
+    private static final String CACHE_FOLDER = "shuga_quests/catalog_cache";
+    private static final String FILE_EXTENSION = ".bin";
+    // One entry per locale and catalog revision; older revisions are pruned beyond this.
+    private static final int MAX_ENTRIES_PER_SERVER = 8;
+    private static final Pattern HASH_PATTERN = Pattern.compile("[0-9a-f]{64}");
+
+    // Utility class; no instantiation.
+    private QuestCatalogCache() {
+    }
+
+    // Load a cached catalog for the current server, or null when missing or corrupt.
+    public static byte[] load(String hash) {
+        Path file = getFile(hash);
+        if (file == null || !Files.isRegularFile(file)) {
+            return null;
+        }
+        try {
+            byte[] frame = Files.readAllBytes(file);
+            if (hash.equals(QuestCatalogFrames.hash(frame))) {
+                return frame;
+            }
+            ShugaQuestsMod.LOGGER.warn("Discarding corrupt quest catalog cache entry: {}", file);
+            Files.deleteIfExists(file);
+        } catch (IOException ex) {
+            ShugaQuestsMod.LOGGER.warn("Failed to read quest catalog cache entry: {}", file, ex);
+        }
+        return null;
+    }
+
+    // Store a catalog for the current server off the client thread.
+    public static void store(String hash, byte[] frame) {
+        Path file = getFile(hash);
+        if (file == null) {
+            return;
+        }
+        Util.ioPool().execute(() -> write(file, frame));
+    }
+
+    private static void write(Path file, byte[] frame) {
+        Path tempFile = file.resolveSibling(file.getFileName() + ".tmp");
+        try {
+            Files.createDirectories(file.getParent());
+            Files.write(tempFile, frame);
+            try {
+                Files.move(tempFile, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException ex) {
+                Files.move(tempFile, file, StandardCopyOption.REPLACE_EXISTING);
+            }
+            prune(file.getParent());
+        } catch (IOException ex) {
+            ShugaQuestsMod.LOGGER.warn("Failed to write quest catalog cache entry: {}", file, ex);
+        }
+    }
+
+    // Keep only the most recently written catalogs for a server.
+    private static void prune(Path serverDir) throws IOException {
+        List<Path> entries;
+        try (Stream<Path> stream = Files.list(serverDir)) {
+            entries = stream
+                    .filter(path -> path.getFileName().toString().endsWith(FILE_EXTENSION))
+                    .sorted(Comparator.comparingLong(QuestCatalogCache::lastModified).reversed())
+                    .toList();
+        }
+        for (int i = MAX_ENTRIES_PER_SERVER; i < entries.size(); i++) {
+            Files.deleteIfExists(entries.get(i));
+        }
+    }
+
+    private static long lastModified(Path path) {
+        try {
+            return Files.getLastModifiedTime(path).toMillis();
+        } catch (IOException ex) {
+            return 0L;
+        }
+    }
+
+    // Resolve the cache file for a hash, rejecting anything that is not a well-formed hash.
+    private static Path getFile(String hash) {
+        if (hash == null || !HASH_PATTERN.matcher(hash).matches()) {
+            return null;
+        }
+        Minecraft minecraft = Minecraft.getInstance();
+        ServerData server = minecraft.getCurrentServer();
+        String serverKey = server == null ? "local" : server.ip;
+        return minecraft.gameDirectory.toPath()
+                .resolve(CACHE_FOLDER)
+                .resolve(serverKey.replaceAll("[^A-Za-z0-9_-]", "_"))
+                .resolve(hash + FILE_EXTENSION);
+    }
+}
@@ -2,29 +2,63 @@
 
 package net.sugar27.quests.client;
 
+import it.unimi.dsi.fastutil.ints.Int2ObjectMap;
+import it.unimi.dsi.fastutil.ints.Int2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.ints.IntArrayList;
+import it.unimi.dsi.fastutil.ints.IntList;
+import it.unimi.dsi.fastutil.ints.IntOpenHashSet;
+import it.unimi.dsi.fastutil.ints.IntSet;
+import it.unimi.dsi.fastutil.objects.Object2IntMap;
+import it.unimi.dsi.fastutil.objects.Object2IntOpenHashMap;
 import net.minecraft.Util;
 import net.minecraft.client.Minecraft;
 import net.minecraft.sounds.SoundEvents;
+import net.neoforged.neoforge.client.network.ClientPacketDistributor;
+import net.sugar27.quests.ShugaQuestsMod;
 import net.sugar27.quests.config.QuestClientConfig;
+import net.sugar27.quests.network.QuestCatalogChunkPacket;
+import net.sugar27.quests.network.QuestCatalogFrames;
+import net.sugar27.quests.network.QuestCatalogStreamer;
+import net.sugar27.quests.network.QuestDefinitionDeltaPacket;
+import net.sugar27.quests.network.QuestProgressDeltaPacket;
 import net.sugar27.quests.network.QuestSyncPacket;
+import net.sugar27.quests.network.QuestSyncRequestPacket;
+import net.sugar27.quests.network.QuestUnlockPacket;
 import net.sugar27.quests.quest.QuestDefinition;
+import net.sugar27.quests.quest.QuestIdDictionary;
+import net.sugar27.quests.quest.QuestObjective;
+import net.sugar27.quests.quest.QuestPrerequisiteGraph;
 import net.sugar27.quests.quest.QuestProgress;
 
 import java.util.ArrayList;
+import java.util.BitSet;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
-// Holds client-side quest data synced from the server.
+// Holds client-side quest data synced from the server; the screens look quests up by string id.
 public final class QuestClientState {
     private static final Map<String, QuestDefinition> QUEST_DEFINITIONS = new HashMap<>();
-    private static final Map<String, QuestProgress> QUEST_PROGRESS = new HashMap<>();
-    private static final List<String> DAILY_QUESTS = new ArrayList<>();
-    private static String activeQuestId = "";
+    private static final Int2ObjectMap<QuestDefinition> DEFINITIONS_BY_ID = new Int2ObjectOpenHashMap<>();
+    private static final Object2IntMap<String> QUEST_IDS = new Object2IntOpenHashMap<>();
+    private static final Int2ObjectMap<QuestProgress> QUEST_PROGRESS = new Int2ObjectOpenHashMap<>();
+    private static final IntList DAILY_QUESTS = new IntArrayList();
+    // Quests with prerequisites that are all completed, and quests masked because a prerequisite is missing or locked.
+    // Rebuilt on full syncs and catalog changes, then kept current from the server's unlock sets.
+    private static final IntSet UNLOCKED_QUESTS = new IntOpenHashSet();
+    private static final IntSet HIDDEN_QUESTS = new IntOpenHashSet();
+    private static QuestPrerequisiteGraph prerequisiteGraph = QuestPrerequisiteGraph.EMPTY;
+    private static int activeQuestId = QuestIdDictionary.NO_QUEST;
+    private static String catalogHash = "";
+    // Streamed catalog being assembled; installed only once its last chunk arrives.
+    private static String pendingCatalogHash = "";
+    private static byte[] pendingCatalog;
+    private static int pendingCatalogLength;
+    private static int pendingNextChunk;
 
     private static final long NOTIFICATION_DURATION_MS = 5000L;
-    private static String notificationQuestId = "";
+    private static int notificationQuestId = QuestIdDictionary.NO_QUEST;
     private static QuestSyncPacket.NotificationType notificationType = QuestSyncPacket.NotificationType.NONE;
     private static long notificationExpiresAt = 0L;
 
@@ -35,51 +69,155 @@ public final class QuestClientState {
     // Apply a sync payload from the server.
     public static void applySync(QuestSyncPacket packet) {
         if (packet.syncType() == QuestSyncPacket.SyncType.FULL) {
-            QUEST_DEFINITIONS.clear();
+            if (!applyCatalog(packet)) {
+                // Cache miss; the server resends this sync with the catalog attached, unless it is already streaming it.
+                if (!packet.hasCatalog() && !packet.catalogHash().equals(pendingCatalogHash)) {
+                    ClientPacketDistributor.sendToServer(new QuestSyncRequestPacket(true));
+                }
+                return;
+            }
             QUEST_PROGRESS.clear();
             DAILY_QUESTS.clear();
         }
 
-        for (QuestDefinition definition : packet.questDefinitions()) {
-            QUEST_DEFINITIONS.put(definition.id(), definition);
-        }
         for (QuestProgress progress : packet.questProgresses()) {
             QUEST_PROGRESS.put(progress.questId(), progress);
         }
-        if (packet.syncType() == QuestSyncPacket.SyncType.FULL) {
-            replaceDailyQuestIds(packet.dailyQuestIds());
-        } else if (!packet.dailyQuestIds().isEmpty()) {
-            replaceDailyQuestIds(packet.dailyQuestIds());
+        BitSet archived = BitSet.valueOf(packet.archivedQuests());
+        for (int questId = archived.nextSetBit(0); questId >= 0; questId = archived.nextSetBit(questId + 1)) {
+            QuestDefinition definition = DEFINITIONS_BY_ID.get(questId);
+            if (definition != null && !QUEST_PROGRESS.containsKey(questId)) {
+                QUEST_PROGRESS.put(questId, createCompletedProgress(questId, definition));
+            }
+        }
+        if (packet.syncType() == QuestSyncPacket.SyncType.FULL || packet.dailyQuestIds().length > 0) {
+            DAILY_QUESTS.clear();
+            DAILY_QUESTS.addElements(0, packet.dailyQuestIds());
         }
         activeQuestId = packet.activeQuestId();
+        if (packet.syncType() == QuestSyncPacket.SyncType.FULL) {
+            rebuildLockState();
+        }
+
+        showNotification(packet.notificationQuestId(), packet.notificationType());
+    }
+
+    // Patch the catalog after a server-side hot reload; ignored until a full catalog has been installed.
+    public static void applyDefinitionDelta(QuestDefinitionDeltaPacket packet) {
+        if (catalogHash.isEmpty()) {
+            return;
+        }
+        for (int i = 0; i < packet.questDefinitions().size(); i++) {
+            int questId = packet.definitionIds()[i];
+            QuestDefinition definition = packet.questDefinitions().get(i);
+            QuestDefinition previous = DEFINITIONS_BY_ID.put(questId, definition);
+            if (previous != null && !previous.id().equals(definition.id())) {
+                QUEST_DEFINITIONS.remove(previous.id());
+                QUEST_IDS.removeInt(previous.id());
+            }
+            QUEST_DEFINITIONS.put(definition.id(), definition);
+            QUEST_IDS.put(definition.id(), questId);
+        }
+        for (int questId : packet.removedIds()) {
+            QuestDefinition removed = DEFINITIONS_BY_ID.remove(questId);
+            if (removed != null) {
+                QUEST_DEFINITIONS.remove(removed.id());
+                QUEST_IDS.removeInt(removed.id());
+            }
+            QUEST_PROGRESS.remove(questId);
+        }
+        catalogHash = packet.catalogHash();
+        prerequisiteGraph = QuestPrerequisiteGraph.build(DEFINITIONS_BY_ID);
+        rebuildLockState();
+    }
+
+    // Patch a single quest's progress in place from a compact delta.
+    public static void applyProgressDelta(QuestProgressDeltaPacket packet) {
+        int questId = packet.questId();
+        QuestDefinition definition = DEFINITIONS_BY_ID.get(questId);
+        if (definition == null) {
+            return;
+        }
+        QuestProgress progress = QUEST_PROGRESS.get(questId);
+        if (progress == null) {
+            progress = new QuestProgress(questId);
+            QUEST_PROGRESS.put(questId, progress);
+        }
+        int[] counts = packet.counts();
+        for (int i = 0; i + 2 < packet.countLength(); i += 3) {
+            QuestProgress.ObjectiveProgress objectiveProgress = getObjectiveProgress(definition, progress, counts[i]);
+            if (objectiveProgress != null && counts[i + 1] < objectiveProgress.criteriaSize()) {
+                objectiveProgress.setCount(counts[i + 1], counts[i + 2]);
+            }
+        }
+        int[] completedObjectives = packet.completedObjectives();
+        for (int i = 0; i < packet.completedLength(); i++) {
+            QuestProgress.ObjectiveProgress objectiveProgress = getObjectiveProgress(definition, progress, completedObjectives[i]);
+            if (objectiveProgress != null) {
+                objectiveProgress.markCompleted();
+            }
+        }
+        if (packet.hasFlag(QuestProgressDeltaPacket.FLAG_QUEST_COMPLETED) && !progress.isCompleted()) {
+            progress.markCompleted();
+        }
+        if (packet.hasFlag(QuestProgressDeltaPacket.FLAG_REWARDS_GRANTED)) {
+            progress.markRewardsGranted();
+        }
+        if (packet.hasFlag(QuestProgressDeltaPacket.FLAG_ACTIVE_CLEARED) && questId == activeQuestId) {
+            activeQuestId = QuestIdDictionary.NO_QUEST;
+        }
+        showNotification(questId, packet.notificationType());
+    }
 
-        if (packet.notificationType() != QuestSyncPacket.NotificationType.NONE
-                && QuestClientConfig.hudNotificationsEnabled()) {
-            notificationQuestId = packet.notificationQuestId();
-            notificationType = packet.notificationType();
-            notificationExpiresAt = Util.getMillis() + NOTIFICATION_DURATION_MS;
-            playNotificationSound(notificationType);
+    // Mark quests the server reported as unlocked, then re-check only the quests that list them as prerequisites.
+    public static void applyUnlocks(QuestUnlockPacket packet) {
+        for (int questId : packet.questIds()) {
+            if (prerequisiteGraph.hasPrerequisites(questId)) {
+                UNLOCKED_QUESTS.add(questId);
+            }
+        }
+        for (int questId : packet.questIds()) {
+            for (int dependent : prerequisiteGraph.dependentsOf(questId)) {
+                updateHidden(dependent);
+            }
         }
     }
 
+    // Check whether every prerequisite of a quest is completed.
+    public static boolean arePrerequisitesMet(String questId) {
+        int id = QUEST_IDS.getOrDefault(questId, QuestIdDictionary.NO_QUEST);
+        return !prerequisiteGraph.hasPrerequisites(id) || UNLOCKED_QUESTS.contains(id);
+    }
+
+    // Check whether a quest's details are masked because a prerequisite is missing or still locked itself.
+    public static boolean isQuestLocked(String questId) {
+        return HIDDEN_QUESTS.contains(QUEST_IDS.getOrDefault(questId, QuestIdDictionary.NO_QUEST));
+    }
+
     // Get an immutable view of quest definitions.
     public static Map<String, QuestDefinition> getQuestDefinitions() {
         return Collections.unmodifiableMap(QUEST_DEFINITIONS);
     }
 
-    // Get an immutable view of quest progress.
-    public static Map<String, QuestProgress> getQuestProgress() {
-        return Collections.unmodifiableMap(QUEST_PROGRESS);
+    // Get the progress for a quest, or null when the player has none.
+    public static QuestProgress getQuestProgress(String questId) {
+        return QUEST_PROGRESS.get(QUEST_IDS.getOrDefault(questId, QuestIdDictionary.NO_QUEST));
     }
 
-    // Get the current daily quest ids.
-    public static List<String> getDailyQuestIds() {
-        return Collections.unmodifiableList(DAILY_QUESTS);
+    // Check whether a quest is in today's daily selection.
+    public static boolean isDailyQuest(String questId) {
+        int id = QUEST_IDS.getOrDefault(questId, QuestIdDictionary.NO_QUEST);
+        return id != QuestIdDictionary.NO_QUEST && DAILY_QUESTS.contains(id);
     }
 
-    // Get the currently active quest id.
+    // Get the dictionary id the server assigned to a quest, for client-to-server packets.
+    public static int getQuestNumericId(String questId) {
+        return QUEST_IDS.getOrDefault(questId, QuestIdDictionary.NO_QUEST);
+    }
+
+    // Get the currently active quest id, or an empty string when none.
     public static String getActiveQuestId() {
-        return activeQuestId;
+        return getQuestName(activeQuestId);
     }
 
     // Get the current notification, clearing it if expired.
@@ -95,7 +233,7 @@ public final class QuestClientState {
             clearNotification();
             return null;
         }
-        return new QuestNotification(notificationQuestId, notificationType);
+        return new QuestNotification(getQuestName(notificationQuestId), notificationType);
     }
 
     // Notification payload used by the HUD overlay.
@@ -114,14 +252,162 @@ public final class QuestClientState {
         }
     }
 
-    private static void replaceDailyQuestIds(List<String> dailyQuestIds) {
-        DAILY_QUESTS.clear();
-        DAILY_QUESTS.addAll(dailyQuestIds);
+    // Install the catalog named by a full sync from the packet, memory or disk cache; false when none is available.
+    private static boolean applyCatalog(QuestSyncPacket packet) {
+        if (packet.hasCatalog()) {
+            QuestCatalogCache.store(packet.catalogHash(), packet.catalogFrame());
+            return installCatalog(packet.catalogHash(), packet.catalogFrame());
+        }
+        if (packet.catalogHash().equals(catalogHash)) {
+            return true;
+        }
+        byte[] frame = QuestCatalogCache.load(packet.catalogHash());
+        return frame != null && installCatalog(packet.catalogHash(), frame);
+    }
+
+    // Append a streamed catalog chunk, installing the catalog atomically once the stream is complete.
+    public static void applyCatalogChunk(QuestCatalogChunkPacket packet) {
+        if (packet.isFirst()) {
+            clearPendingCatalog();
+            if (packet.totalLength() <= 0 || packet.totalLength() > (long) packet.chunkCount() * QuestCatalogStreamer.CHUNK_BYTES) {
+                return;
+            }
+            pendingCatalogHash = packet.catalogHash();
+            pendingCatalog = new byte[packet.totalLength()];
+            pendingCatalogLength = 0;
+            pendingNextChunk = 0;
+        }
+        if (pendingCatalog == null || packet.index() != pendingNextChunk || !packet.catalogHash().equals(pendingCatalogHash)
+                || pendingCatalogLength + packet.data().length > pendingCatalog.length) {
+            ShugaQuestsMod.LOGGER.warn("Dropping out-of-order quest catalog chunk {}/{}", packet.index(), packet.chunkCount());
+            clearPendingCatalog();
+            return;
+        }
+        System.arraycopy(packet.data(), 0, pendingCatalog, pendingCatalogLength, packet.data().length);
+        pendingCatalogLength += packet.data().length;
+        pendingNextChunk++;
+        if (!packet.isLast()) {
+            return;
+        }
+        byte[] frame = pendingCatalog;
+        boolean complete = pendingCatalogLength == frame.length;
+        clearPendingCatalog();
+        if (!complete || !packet.catalogHash().equals(QuestCatalogFrames.hash(frame))) {
+            ShugaQuestsMod.LOGGER.warn("Discarding streamed quest catalog {} that failed verification", packet.catalogHash());
+            return;
+        }
+        if (installCatalog(packet.catalogHash(), frame)) {
+            QuestCatalogCache.store(packet.catalogHash(), frame);
+        }
+    }
+
+    // Decode a catalog and swap it in for the current one; false if it could not be decoded.
+    private static boolean installCatalog(String hash, byte[] frame) {
+        List<QuestDefinition> definitions = new ArrayList<>();
+        IntArrayList definitionIds = new IntArrayList();
+        try {
+            QuestCatalogFrames.read(frame, definitions, definitionIds);
+        } catch (RuntimeException ex) {
+            ShugaQuestsMod.LOGGER.warn("Failed to decode quest catalog {}", hash, ex);
+            return false;
+        }
+        QUEST_DEFINITIONS.clear();
+        DEFINITIONS_BY_ID.clear();
+        QUEST_IDS.clear();
+        for (int i = 0; i < definitions.size(); i++) {
+            QuestDefinition definition = definitions.get(i);
+            QUEST_DEFINITIONS.put(definition.id(), definition);
+            DEFINITIONS_BY_ID.put(definitionIds.getInt(i), definition);
+            QUEST_IDS.put(definition.id(), definitionIds.getInt(i));
+        }
+        catalogHash = hash;
+        prerequisiteGraph = QuestPrerequisiteGraph.build(DEFINITIONS_BY_ID);
+        return true;
+    }
+
+    // Recompute every lock from current progress; only full syncs and catalog changes need this.
+    private static void rebuildLockState() {
+        UNLOCKED_QUESTS.clear();
+        HIDDEN_QUESTS.clear();
+        for (int questId : DEFINITIONS_BY_ID.keySet()) {
+            if (prerequisiteGraph.hasPrerequisites(questId)
+                    && prerequisiteGraph.arePrerequisitesMet(questId, QuestClientState::isCompleted)) {
+                UNLOCKED_QUESTS.add(questId);
+            }
+        }
+        for (int questId : DEFINITIONS_BY_ID.keySet()) {
+            updateHidden(questId);
+        }
+    }
+
+    private static void updateHidden(int questId) {
+        boolean hidden = prerequisiteGraph.isBlocked(questId);
+        for (int prerequisite : prerequisiteGraph.prerequisitesOf(questId)) {
+            if (prerequisiteGraph.hasPrerequisites(prerequisite) && !UNLOCKED_QUESTS.contains(prerequisite)) {
+                hidden = true;
+                break;
+            }
+        }
+        if (hidden) {
+            HIDDEN_QUESTS.add(questId);
+        } else {
+            HIDDEN_QUESTS.remove(questId);
+        }
+    }
+
+    private static boolean isCompleted(int questId) {
+        QuestProgress progress = QUEST_PROGRESS.get(questId);
+        return progress != null && progress.isCompleted();
+    }
+
+    private static void clearPendingCatalog() {
+        pendingCatalogHash = "";
+        pendingCatalog = null;
+        pendingCatalogLength = 0;
+        pendingNextChunk = 0;
+    }
+
+    private static QuestProgress.ObjectiveProgress getObjectiveProgress(QuestDefinition definition, QuestProgress progress, int objectiveIndex) {
+        if (objectiveIndex < 0 || objectiveIndex >= definition.objectives().size()) {
+            return null;
+        }
+        QuestObjective objective = definition.objectives().get(objectiveIndex);
+        return progress.getOrCreateObjective(objective.id(), objective.criteria().size());
+    }
+
+    // The server only keeps a completed bit for archived quests, so rebuild a finished progress for display.
+    private static QuestProgress createCompletedProgress(int questId, QuestDefinition definition) {
+        QuestProgress progress = new QuestProgress(questId);
+        for (QuestObjective objective : definition.objectives()) {
+            QuestProgress.ObjectiveProgress objectiveProgress = progress.getOrCreateObjective(objective.id(), objective.criteria().size());
+            for (int i = 0; i < objective.criteria().size(); i++) {
+                objectiveProgress.setCount(i, objective.criteria().get(i).count());
+            }
+            objectiveProgress.markCompleted();
+        }
+        progress.markCompleted();
+        progress.markRewardsGranted();
+        return progress;
+    }
+
+    private static String getQuestName(int questId) {
+        QuestDefinition definition = DEFINITIONS_BY_ID.get(questId);
+        return definition == null ? "" : definition.id();
+    }
+
+    private static void showNotification(int questId, QuestSyncPacket.NotificationType type) {
+        if (type == QuestSyncPacket.NotificationType.NONE || !QuestClientConfig.hudNotificationsEnabled()) {
+            return;
+        }
+        notificationQuestId = questId;
+        notificationType = type;
+        notificationExpiresAt = Util.getMillis() + NOTIFICATION_DURATION_MS;
+        playNotificationSound(notificationType);
     }
 
     private static void clearNotification() {
         notificationType = QuestSyncPacket.NotificationType.NONE;
-        notificationQuestId = "";
+        notificationQuestId = QuestIdDictionary.NO_QUEST;
     }
 }
 
@@ -162,7 +162,7 @@ public class QuestScreen extends Screen {
                 } else if (activeQuestId != null && !activeQuestId.isEmpty()) {
                     openStartOverrideConfirm(activeQuestId, selectedQuestId);
                 } else {
-                    ClientPacketDistributor.sendToServer(new QuestStartPacket(selectedQuestId));
+                    ClientPacketDistributor.sendToServer(new QuestStartPacket(QuestClientState.getQuestNumericId(selectedQuestId)));
                 }
             }
         }).bounds(DETAIL_X, DETAIL_Y + START_BUTTON_Y_OFFSET, START_BUTTON_WIDTH, START_BUTTON_HEIGHT).build();
@@ -176,9 +176,8 @@ public class QuestScreen extends Screen {
     public void render(@Nonnull GuiGraphics graphics, int mouseX, int mouseY, float partialTick) {
         var questDefinitions = QuestClientState.getQuestDefinitions();
         refreshFiltered();
-        List<String> dailyQuestIds = QuestClientState.getDailyQuestIds();
         QuestDefinition selectedQuest = selectedQuestId.isEmpty() ? null : questDefinitions.get(selectedQuestId);
-        boolean selectedDaily = selectedQuest != null && dailyQuestIds.contains(selectedQuest.id());
+        boolean selectedDaily = selectedQuest != null && QuestClientState.isDailyQuest(selectedQuest.id());
         updateStartButtonState(selectedQuest, selectedDaily);
 
         // Call super.render first so that the screen background and widgets are
@@ -229,7 +228,7 @@ public class QuestScreen extends Screen {
                 continue;
             }
             QuestDefinition quest = entry.quest();
-            boolean isDaily = dailyQuestIds.contains(quest.id());
+            boolean isDaily = QuestClientState.isDailyQuest(quest.id());
             boolean isSelected = quest.id().equals(selectedQuestId);
             boolean isActive = quest.id().equals(activeQuestId);
             if (isSelected) {
@@ -274,7 +273,7 @@ public class QuestScreen extends Screen {
 
         int detailX = DETAIL_X;
         int detailY = DETAIL_Y;
-        boolean isDaily = QuestClientState.getDailyQuestIds().contains(quest.id());
+        boolean isDaily = QuestClientState.isDailyQuest(quest.id());
         boolean maskLocked = isQuestLocked(quest);
         Font font = Objects.requireNonNull(this.font);
         if (isDaily) {
@@ -290,7 +289,7 @@ public class QuestScreen extends Screen {
                 : Component.translatable(Objects.requireNonNull(quest.descriptionKey()));
         graphics.drawString(font, Objects.requireNonNull(description), detailX, detailY + 14, 0xFFB0B0B0);
 
-        QuestProgress progress = QuestClientState.getQuestProgress().get(selectedQuestId);
+        QuestProgress progress = QuestClientState.getQuestProgress(selectedQuestId);
         Component status = progress == null
                 ? Component.translatable("screen.shuga_quests.status.not_started")
                 : progress.isCompleted()
@@ -354,14 +353,13 @@ public class QuestScreen extends Screen {
         filteredQuests.clear();
         listEntries.clear();
         var questDefinitions = QuestClientState.getQuestDefinitions();
-        List<String> dailyQuestIds = QuestClientState.getDailyQuestIds();
         List<QuestDefinition> dailyQuests = new ArrayList<>();
         List<QuestDefinition> incompleteQuests = new ArrayList<>();
         List<QuestDefinition> completeQuests = new ArrayList<>();
         int dailyTotal = 0;
         for (QuestDefinition quest : questDefinitions.values()) {
             boolean isDailyQuest = QuestTypes.DAILY.equalsIgnoreCase(quest.type());
-            boolean isSelectedDaily = dailyQuestIds.contains(quest.id());
+            boolean isSelectedDaily = QuestClientState.isDailyQuest(quest.id());
             boolean includeQuest = false;
             if (showDailyOnly) {
                 includeQuest = isDailyQuest && isSelectedDaily;
@@ -371,7 +369,7 @@ public class QuestScreen extends Screen {
             if (!includeQuest) {
                 continue;
             }
-            QuestProgress progress = QuestClientState.getQuestProgress().get(quest.id());
+            QuestProgress progress = QuestClientState.getQuestProgress(quest.id());
             if (isDailyQuest && isSelectedDaily) {
                 dailyTotal++;
                 if (progress == null || !progress.isCompleted()) {
@@ -487,7 +485,7 @@ public class QuestScreen extends Screen {
             startButton.active = false;
             return;
         }
-        QuestProgress progress = QuestClientState.getQuestProgress().get(selectedQuest.id());
+        QuestProgress progress = QuestClientState.getQuestProgress(selectedQuest.id());
         if (progress != null && progress.isCompleted()) {
             startButton.active = false;
             return;
@@ -566,7 +564,7 @@ public class QuestScreen extends Screen {
         Component message = Component.translatable("screen.shuga_quests.stop_confirm.message", questTitle);
         QuestConfirmOverlayScreen confirmScreen = new QuestConfirmOverlayScreen(this, confirmed -> {
             if (confirmed) {
-                ClientPacketDistributor.sendToServer(new QuestStopPacket(questId));
+                ClientPacketDistributor.sendToServer(new QuestStopPacket(QuestClientState.getQuestNumericId(questId)));
             }
         }, title, message);
         minecraft.setScreen(confirmScreen);
@@ -585,7 +583,7 @@ public class QuestScreen extends Screen {
         Component message = Component.translatable("screen.shuga_quests.start_confirm.message", activeTitle);
         QuestConfirmOverlayScreen confirmScreen = new QuestConfirmOverlayScreen(this, confirmed -> {
             if (confirmed) {
-                ClientPacketDistributor.sendToServer(new QuestStartPacket(newQuestId));
+                ClientPacketDistributor.sendToServer(new QuestStartPacket(QuestClientState.getQuestNumericId(newQuestId)));
             }
         }, title, message);
         minecraft.setScreen(confirmScreen);
@@ -605,8 +603,8 @@ public class QuestScreen extends Screen {
                 int required = Math.max(0, criteriaList.get(i).count());
                 total = Math.max(total, required);
                 int value = 0;
-                if (objectiveProgress != null && i < objectiveProgress.criteriaCounts().size()) {
-                    value = Math.max(0, objectiveProgress.criteriaCounts().get(i));
+                if (objectiveProgress != null) {
+                    value = Math.max(0, objectiveProgress.getCount(i));
                 }
                 current = Math.max(current, Math.min(value, required));
             }
@@ -618,8 +616,8 @@ public class QuestScreen extends Screen {
                 int required = Math.max(0, criteriaList.get(i).count());
                 total += required;
                 int value = 0;
-                if (objectiveProgress != null && i < objectiveProgress.criteriaCounts().size()) {
-                    value = Math.max(0, objectiveProgress.criteriaCounts().get(i));
+                if (objectiveProgress != null) {
+                    value = Math.max(0, objectiveProgress.getCount(i));
                 }
                 current += Math.min(value, required);
             }
@@ -640,7 +638,7 @@ public class QuestScreen extends Screen {
         } else {
             title = Component.translatable(Objects.requireNonNull(prerequisite.titleKey()));
         }
-        QuestProgress prerequisiteProgress = QuestClientState.getQuestProgress().get(prerequisiteId);
+        QuestProgress prerequisiteProgress = QuestClientState.getQuestProgress(prerequisiteId);
         Component status = prerequisiteProgress != null && prerequisiteProgress.isCompleted()
                 ? Component.translatable("screen.shuga_quests.status.complete")
                 : Component.translatable("screen.shuga_quests.status.not_started");
@@ -648,32 +646,11 @@ public class QuestScreen extends Screen {
     }
 
     private boolean arePrerequisitesMet(QuestDefinition quest) {
-        if (quest.prerequisites().isEmpty()) {
-            return true;
-        }
-        for (String prerequisiteId : quest.prerequisites()) {
-            QuestProgress prerequisiteProgress = QuestClientState.getQuestProgress().get(prerequisiteId);
-            if (prerequisiteProgress == null || !prerequisiteProgress.isCompleted()) {
-                return false;
-            }
-        }
-        return true;
+        return QuestClientState.arePrerequisitesMet(quest.id());
     }
 
     private boolean isQuestLocked(QuestDefinition quest) {
-        if (quest.prerequisites().isEmpty()) {
-            return false;
-        }
-        for (String prerequisiteId : quest.prerequisites()) {
-            QuestDefinition prerequisite = QuestClientState.getQuestDefinitions().get(prerequisiteId);
-            if (prerequisite == null) {
-                return true;
-            }
-            if (!prerequisite.prerequisites().isEmpty() && !arePrerequisitesMet(prerequisite)) {
-                return true;
-            }
-        }
-        return false;
+        return QuestClientState.isQuestLocked(quest.id());
     }
 
     private String getObjectiveTranslationKey(QuestObjective objective) {
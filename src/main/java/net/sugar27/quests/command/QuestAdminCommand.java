@@ -12,16 +12,24 @@ import net.minecraft.commands.arguments.EntityArgument;
 import net.minecraft.network.chat.Component;
 import net.minecraft.server.level.ServerPlayer;
 import net.neoforged.neoforge.event.RegisterCommandsEvent;
+import net.sugar27.quests.ShugaQuestsMod;
+import net.sugar27.quests.config.QuestConfigPaths;
 import net.sugar27.quests.quest.DailyQuestManager;
+import net.sugar27.quests.quest.QuestContentReloader;
 import net.sugar27.quests.quest.QuestManager;
+import net.sugar27.quests.quest.QuestPackBundle;
+import net.sugar27.quests.quest.QuestPackCompiler;
 import net.sugar27.quests.quest.QuestProgressManager;
 import net.sugar27.quests.quest.QuestDefinition;
-import net.sugar27.quests.server.lang.LangManager;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
 
 // Handles the /questadmin command tree.
 public final class QuestAdminCommand {
@@ -51,11 +59,42 @@ public final class QuestAdminCommand {
                 .then(Commands.literal("reload")
                         .executes(context -> {
                             Objects.requireNonNull(context);
-                            QuestManager.get().loadAll();
-                            DailyQuestManager.get().loadCandidates();
-                            LangManager.get().reload();
-                            PROGRESS_MANAGER.syncAll(context.getSource().getServer());
-                            context.getSource().sendSuccess(() -> Component.translatable("command.shuga_quests.reload"), true);
+                            CommandSourceStack source = context.getSource();
+                            QuestContentReloader.reloadAllAsync(source.getServer()).whenCompleteAsync((ignored, error) -> {
+                                if (error != null) {
+                                    ShugaQuestsMod.LOGGER.error("Quest reload failed", error);
+                                    source.sendFailure(Component.translatable("command.shuga_quests.reload_failed"));
+                                    return;
+                                }
+                                PROGRESS_MANAGER.syncAll(source.getServer());
+                                source.sendSuccess(() -> Component.translatable("command.shuga_quests.reload"), true);
+                            }, source.getServer());
+                            return 1;
+                        }))
+                .then(Commands.literal("compile")
+                        .executes(context -> {
+                            Objects.requireNonNull(context);
+                            CommandSourceStack source = context.getSource();
+                            Path rootDir = QuestConfigPaths.getRootDir();
+                            CompletableFuture.supplyAsync(() -> {
+                                try {
+                                    return QuestPackCompiler.compile(rootDir, QuestPackBundle.getPath(rootDir));
+                                } catch (IOException ex) {
+                                    throw new UncheckedIOException(ex);
+                                }
+                            }, runnable -> {
+                                Thread thread = new Thread(runnable, "ShugaQuests-PackCompiler");
+                                thread.setDaemon(true);
+                                thread.start();
+                            }).whenCompleteAsync((result, error) -> {
+                                if (error != null) {
+                                    ShugaQuestsMod.LOGGER.error("Quest pack compile failed", error);
+                                    source.sendFailure(Component.translatable("command.shuga_quests.compile_failed"));
+                                    return;
+                                }
+                                source.sendSuccess(() -> Component.translatable("command.shuga_quests.compile",
+                                        result.questCount(), result.localeCount()), true);
+                            }, source.getServer());
                             return 1;
                         }))
                 .then(Commands.literal("grant")
@@ -8,6 +8,7 @@ import net.neoforged.neoforge.common.ModConfigSpec;
 public final class QuestServerConfig {
     public static final ModConfigSpec SPEC;
     public static final ModConfigSpec.IntValue DAILY_REROLL_HOUR;
+    public static final ModConfigSpec.BooleanValue WATCH_CONFIG;
 
     static {
         ModConfigSpec.Builder builder = new ModConfigSpec.Builder();
@@ -15,6 +16,9 @@ public final class QuestServerConfig {
         DAILY_REROLL_HOUR = builder
                 .comment("Hour of day (0-23) when daily quests reroll.")
                 .defineInRange("dailyRerollHour", 4, 0, 23);
+        WATCH_CONFIG = builder
+                .comment("Watch the quest config folder and apply edited quest and lang files live, without a full reload.")
+                .define("watchConfig", false);
         builder.pop();
         SPEC = builder.build();
     }
@@ -26,4 +30,8 @@ public final class QuestServerConfig {
     public static int dailyRerollHour() {
         return DAILY_REROLL_HOUR.get();
     }
+
+    public static boolean watchConfigEnabled() {
+        return WATCH_CONFIG.get();
+    }
 }
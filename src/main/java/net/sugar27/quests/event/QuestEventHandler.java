@@ -3,52 +3,99 @@
 package net.sugar27.quests.event;
 
 import net.minecraft.core.registries.BuiltInRegistries;
-import net.minecraft.resources.ResourceLocation;
+import net.minecraft.server.level.ServerLevel;
 import net.minecraft.server.level.ServerPlayer;
+import net.minecraft.world.level.Level;
 import net.neoforged.bus.api.SubscribeEvent;
 import net.neoforged.neoforge.event.entity.living.LivingDeathEvent;
 import net.neoforged.neoforge.event.entity.player.ItemEntityPickupEvent;
 import net.neoforged.neoforge.event.entity.player.PlayerEvent;
 import net.neoforged.neoforge.event.level.BlockEvent;
+import net.neoforged.neoforge.event.level.LevelEvent;
 import net.neoforged.neoforge.event.server.ServerStartingEvent;
+import net.neoforged.neoforge.event.server.ServerStoppedEvent;
 import net.neoforged.neoforge.event.tick.PlayerTickEvent;
+import net.neoforged.neoforge.event.tick.ServerTickEvent;
+import net.sugar27.quests.config.QuestServerConfig;
+import net.sugar27.quests.network.QuestCatalogStreamer;
 import net.sugar27.quests.quest.DailyQuestManager;
+import net.sugar27.quests.quest.QuestConfigWatcher;
+import net.sugar27.quests.quest.QuestContentReloader;
 import net.sugar27.quests.quest.QuestCriteriaType;
 import net.sugar27.quests.quest.QuestEventContext;
+import net.sugar27.quests.quest.QuestInterestIndex;
+import net.sugar27.quests.quest.QuestLocationTracker;
 import net.sugar27.quests.quest.QuestManager;
 import net.sugar27.quests.quest.QuestProgressManager;
-import net.sugar27.quests.server.lang.LangManager;
+import net.sugar27.quests.quest.QuestProgressStore;
+import net.sugar27.quests.quest.QuestTargetIds;
 import net.sugar27.quests.server.lang.PlayerLocaleStore;
 
-import java.util.Objects;
-
 // Subscribes to NeoForge events and updates quest progress.
 public class QuestEventHandler {
-    private static final int LOCATION_CHECK_INTERVAL_TICKS = 40;
+    private static final int LOCATION_SAMPLE_INTERVAL_TICKS = 10;
+    private static final int EVICTION_CHECK_INTERVAL_TICKS = 200;
     private final QuestProgressManager progressManager = new QuestProgressManager();
+    private final QuestEventContext context = new QuestEventContext();
 
     // Load quest definitions when the server starts.
     @SubscribeEvent
     public void onServerStarting(ServerStartingEvent event) {
-        QuestManager.get().loadAll();
-        DailyQuestManager.get().loadCandidates();
-        LangManager.get().reload();
+        QuestProgressStore.get().open(event.getServer());
+        QuestContentReloader.loadStartup();
         DailyQuestManager.get().ensureDailySelection(event.getServer());
+        if (QuestServerConfig.watchConfigEnabled()) {
+            QuestConfigWatcher.get().start();
+        }
     }
 
     // Sync quest data when a player logs in.
     @SubscribeEvent
     public void onPlayerLogin(PlayerEvent.PlayerLoggedInEvent event) {
         if (event.getEntity() instanceof ServerPlayer player) {
+            QuestProgressStore.get().onLogin(player.getUUID());
             DailyQuestManager.get().ensureDailySelection(player.getServer());
             progressManager.syncFull(player);
         }
     }
 
-    // Clear locale state when a player logs out.
+    // Flush pending progress and clear locale state when a player logs out.
     @SubscribeEvent
     public void onPlayerLogout(PlayerEvent.PlayerLoggedOutEvent event) {
+        if (event.getEntity() instanceof ServerPlayer player) {
+            progressManager.flushPending(player);
+        }
+        QuestProgressStore.get().onLogout(event.getEntity().getUUID());
         PlayerLocaleStore.clearLocale(event.getEntity().getUUID());
+        QuestInterestIndex.get().drop(event.getEntity().getUUID());
+        QuestLocationTracker.get().drop(event.getEntity().getUUID());
+        QuestCatalogStreamer.get().drop(event.getEntity().getUUID());
+    }
+
+    // Write dirty player progress files alongside the overworld save.
+    @SubscribeEvent
+    public void onLevelSave(LevelEvent.Save event) {
+        if (event.getLevel() instanceof ServerLevel level && level.dimension() == Level.OVERWORLD) {
+            QuestProgressStore.get().saveDirty();
+        }
+    }
+
+    // Save and release all player progress once the server has stopped.
+    @SubscribeEvent
+    public void onServerStopped(ServerStoppedEvent event) {
+        QuestConfigWatcher.get().stop();
+        QuestProgressStore.get().close();
+    }
+
+    // Apply progress accumulated during the tick once per player.
+    @SubscribeEvent
+    public void onServerTick(ServerTickEvent.Post event) {
+        progressManager.flushPending(event.getServer());
+        QuestCatalogStreamer.get().tick(event.getServer());
+        QuestConfigWatcher.get().tick(event.getServer(), progressManager);
+        if (event.getServer().getTickCount() % EVICTION_CHECK_INTERVAL_TICKS == 0) {
+            QuestProgressStore.get().evictExpired();
+        }
     }
 
     // Handle block break events.
@@ -57,7 +104,10 @@ public class QuestEventHandler {
         if (!(event.getPlayer() instanceof ServerPlayer player)) {
             return;
         }
-        ResourceLocation blockId = BuiltInRegistries.BLOCK.getKey(Objects.requireNonNull(event.getState().getBlock()));
+        int blockId = BuiltInRegistries.BLOCK.getId(event.getState().getBlock());
+        if (!QuestManager.get().isTargetRelevant(QuestCriteriaType.BLOCK_BROKEN, blockId)) {
+            return;
+        }
         handleContext(player, QuestCriteriaType.BLOCK_BROKEN, blockId, 1);
     }
 
@@ -69,7 +119,10 @@ public class QuestEventHandler {
         }
         var originalStack = event.getOriginalStack();
         var currentStack = event.getCurrentStack();
-        ResourceLocation itemId = BuiltInRegistries.ITEM.getKey(Objects.requireNonNull(originalStack.getItem()));
+        int itemId = BuiltInRegistries.ITEM.getId(originalStack.getItem());
+        if (!QuestManager.get().isTargetRelevant(QuestCriteriaType.ITEM_ACQUIRED, itemId)) {
+            return;
+        }
         int count = Math.max(1, originalStack.getCount() - currentStack.getCount());
         handleContext(player, QuestCriteriaType.ITEM_ACQUIRED, itemId, count);
     }
@@ -80,7 +133,10 @@ public class QuestEventHandler {
         if (!(event.getEntity() instanceof ServerPlayer player)) {
             return;
         }
-        ResourceLocation itemId = BuiltInRegistries.ITEM.getKey(Objects.requireNonNull(event.getCrafting().getItem()));
+        int itemId = BuiltInRegistries.ITEM.getId(event.getCrafting().getItem());
+        if (!QuestManager.get().isTargetRelevant(QuestCriteriaType.ITEM_CRAFTED, itemId)) {
+            return;
+        }
         int count = event.getCrafting().getCount();
         handleContext(player, QuestCriteriaType.ITEM_CRAFTED, itemId, count);
     }
@@ -91,28 +147,34 @@ public class QuestEventHandler {
         if (!(event.getSource().getEntity() instanceof ServerPlayer player)) {
             return;
         }
-        ResourceLocation entityId = BuiltInRegistries.ENTITY_TYPE.getKey(Objects.requireNonNull(event.getEntity().getType()));
+        int entityId = BuiltInRegistries.ENTITY_TYPE.getId(event.getEntity().getType());
+        if (!QuestManager.get().isTargetRelevant(QuestCriteriaType.ENTITY_KILLED, entityId)) {
+            return;
+        }
         handleContext(player, QuestCriteriaType.ENTITY_KILLED, entityId, 1);
     }
 
-    // Handle location checks on a periodic player tick.
+    // Sample player positions, staggered by entity id, and evaluate locations only after relevant movement.
     @SubscribeEvent
     public void onPlayerTick(PlayerTickEvent.Post event) {
         if (!(event.getEntity() instanceof ServerPlayer player)) {
             return;
         }
-        if (player.tickCount % LOCATION_CHECK_INTERVAL_TICKS != 0) {
+        if ((player.tickCount + player.getId()) % LOCATION_SAMPLE_INTERVAL_TICKS != 0) {
             return;
         }
         if (QuestManager.get().getQuestsByCriteriaType(QuestCriteriaType.LOCATION_REACHED).isEmpty()) {
             return;
         }
-        handleContext(player, QuestCriteriaType.LOCATION_REACHED, null, 1);
+        if (!QuestLocationTracker.get().shouldEvaluate(player)) {
+            return;
+        }
+        handleContext(player, QuestCriteriaType.LOCATION_REACHED, QuestTargetIds.NONE, 1);
     }
 
-    private void handleContext(ServerPlayer player, QuestCriteriaType type, ResourceLocation targetId, int count) {
-        QuestEventContext context = new QuestEventContext(player, type, targetId, count, player.level(), player.getX(), player.getY(), player.getZ());
-        progressManager.handleEvent(player, context);
+    private void handleContext(ServerPlayer player, QuestCriteriaType type, int targetId, int count) {
+        progressManager.handleEvent(player, context.set(player, type, targetId, count, player.level(), player.getX(), player.getY(), player.getZ()));
+        context.clear();
     }
 }
 
@@ -7,30 +7,50 @@ import net.neoforged.neoforge.network.PacketDistributor;
 import net.neoforged.neoforge.network.event.RegisterPayloadHandlersEvent;
 import net.neoforged.neoforge.network.registration.PayloadRegistrar;
 import net.sugar27.quests.ShugaQuestsMod;
-import net.sugar27.quests.quest.QuestDefinition;
+import net.sugar27.quests.quest.QuestIdDictionary;
 import net.sugar27.quests.quest.QuestProgress;
-import net.sugar27.quests.server.lang.LangManager;
 import net.sugar27.quests.server.lang.PlayerLocaleStore;
 
-import java.util.ArrayList;
 import java.util.List;
 import java.util.Objects;
 import javax.annotation.Nonnull;
 
 // Registers payloads and provides helper send methods.
 public final class NetworkHandler {
+    private static final byte[] NO_CATALOG = new byte[0];
+
     // Utility class; no instantiation.
     private NetworkHandler() {
     }
 
     // Register client-bound payloads.
     public static void registerPayloads(RegisterPayloadHandlersEvent event) {
-        PayloadRegistrar registrar = event.registrar(ShugaQuestsMod.MODID).versioned("2");
+        PayloadRegistrar registrar = event.registrar(ShugaQuestsMod.MODID).versioned("9");
         registrar.playToClient(
                 Objects.requireNonNull(QuestSyncPacket.TYPE),
                 Objects.requireNonNull(QuestSyncPacket.STREAM_CODEC),
                 QuestSyncPacket::handle
         );
+        registrar.playToClient(
+                Objects.requireNonNull(QuestCatalogChunkPacket.TYPE),
+                Objects.requireNonNull(QuestCatalogChunkPacket.STREAM_CODEC),
+                QuestCatalogChunkPacket::handle
+        );
+        registrar.playToClient(
+                Objects.requireNonNull(QuestDefinitionDeltaPacket.TYPE),
+                Objects.requireNonNull(QuestDefinitionDeltaPacket.STREAM_CODEC),
+                QuestDefinitionDeltaPacket::handle
+        );
+        registrar.playToClient(
+                Objects.requireNonNull(QuestProgressDeltaPacket.TYPE),
+                Objects.requireNonNull(QuestProgressDeltaPacket.STREAM_CODEC),
+                QuestProgressDeltaPacket::handle
+        );
+        registrar.playToClient(
+                Objects.requireNonNull(QuestUnlockPacket.TYPE),
+                Objects.requireNonNull(QuestUnlockPacket.STREAM_CODEC),
+                QuestUnlockPacket::handle
+        );
         registrar.playToServer(
                 Objects.requireNonNull(QuestSyncRequestPacket.TYPE),
                 Objects.requireNonNull(QuestSyncRequestPacket.STREAM_CODEC),
@@ -53,57 +73,62 @@ public final class NetworkHandler {
         );
     }
 
-    // Send a full sync payload to a player.
-    public static void sendFullSync(@Nonnull ServerPlayer player, List<QuestDefinition> definitions, List<QuestProgress> progresses, List<String> daily, String activeQuestId) {
-        String locale = PlayerLocaleStore.getLocale(player.getUUID());
+    // Send a full sync payload to a player; the catalog bytes are shared by every player with the same locale.
+    // Without includeCatalog only the hash is sent and the client resolves the catalog from its cache.
+    public static void sendFullSync(@Nonnull ServerPlayer player, boolean includeCatalog, List<QuestProgress> progresses, long[] archivedQuests, int[] daily, int activeQuestId) {
+        QuestCatalogFrames.Frame catalog = QuestCatalogFrames.get(PlayerLocaleStore.getLocale(player.getUUID()));
+        if (includeCatalog && QuestCatalogStreamer.needsStreaming(catalog)) {
+            // The streamer sends a hash-only full sync after the last chunk.
+            QuestCatalogStreamer.get().start(player, catalog);
+            return;
+        }
         QuestSyncPacket payload = new QuestSyncPacket(
                 QuestSyncPacket.SyncType.FULL,
-                localizeDefinitions(definitions, locale),
+                catalog.hash(),
+                includeCatalog ? catalog.bytes() : NO_CATALOG,
                 progresses,
+                archivedQuests,
                 daily,
-                "",
+                QuestIdDictionary.NO_QUEST,
                 QuestSyncPacket.NotificationType.NONE,
                 activeQuestId
         );
         PacketDistributor.sendToPlayer(Objects.requireNonNull(player), payload);
     }
 
-    // Send a delta sync payload to a player.
-    public static void sendDeltaSync(@Nonnull ServerPlayer player, QuestDefinition definition, QuestProgress progress, QuestSyncPacket.NotificationType notificationType, String activeQuestId) {
-        String locale = PlayerLocaleStore.getLocale(player.getUUID());
+    // Send a delta sync payload carrying one quest's full progress; the client already has its definition.
+    public static void sendDeltaSync(@Nonnull ServerPlayer player, QuestProgress progress, QuestSyncPacket.NotificationType notificationType, int activeQuestId) {
         QuestSyncPacket payload = new QuestSyncPacket(
                 QuestSyncPacket.SyncType.DELTA,
-                localizeDefinitions(List.of(definition), locale),
+                "",
+                NO_CATALOG,
                 List.of(progress),
-                List.of(),
-                definition.id(),
+                new long[0],
+                new int[0],
+                progress.questId(),
                 notificationType,
                 activeQuestId
         );
         PacketDistributor.sendToPlayer(Objects.requireNonNull(player), payload);
     }
 
-    private static List<QuestDefinition> localizeDefinitions(List<QuestDefinition> definitions, String locale) {
-        if (definitions.isEmpty()) {
-            return List.of();
-        }
-        LangManager langManager = LangManager.get();
-        List<QuestDefinition> localized = new ArrayList<>(definitions.size());
-        for (QuestDefinition definition : definitions) {
-            localized.add(new QuestDefinition(
-                    definition.id(),
-                    langManager.translate(locale, definition.titleKey()),
-                    langManager.translate(locale, definition.descriptionKey()),
-                    definition.category(),
-                    definition.type(),
-                    definition.repeatable(),
-                    definition.prerequisites(),
-                    definition.objectives(),
-                    definition.rewards()
-            ));
-        }
-        return localized;
+    // Send a catalog patch produced by a hot reload.
+    public static void sendDefinitionDelta(@Nonnull ServerPlayer player, QuestDefinitionDeltaPacket payload) {
+        PacketDistributor.sendToPlayer(Objects.requireNonNull(player), Objects.requireNonNull(payload));
     }
-}
 
+    // Send a field-level progress patch for one quest from the first countLength/completedLength entries of the arrays.
+    // The payload takes the arrays as they are: the integrated server hands payloads to the client without encoding them,
+    // so callers must not write to them afterwards.
+    public static void sendProgressDelta(@Nonnull ServerPlayer player, int questId, int flags, int[] counts, int countLength,
+                                         int[] completedObjectives, int completedLength, QuestSyncPacket.NotificationType notificationType) {
+        QuestProgressDeltaPacket payload = new QuestProgressDeltaPacket(questId, flags, counts, countLength,
+                completedObjectives, completedLength, notificationType);
+        PacketDistributor.sendToPlayer(Objects.requireNonNull(player), payload);
+    }
 
+    // Send the quests a completion unlocked.
+    public static void sendUnlocks(@Nonnull ServerPlayer player, int[] questIds) {
+        PacketDistributor.sendToPlayer(Objects.requireNonNull(player), new QuestUnlockPacket(questIds));
+    }
+}
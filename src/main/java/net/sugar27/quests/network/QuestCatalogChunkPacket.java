@@ -0,0 +1,67 @@
+// root/src/main/java/net/sugar27/quests/network/QuestCatalogChunkPacket.java
+
+package net.sugar27.quests.network;
+
+import net.minecraft.network.RegistryFriendlyByteBuf;
+import net.minecraft.network.codec.StreamCodec;
+import net.minecraft.network.protocol.common.custom.CustomPacketPayload;
+import net.minecraft.resources.ResourceLocation;
+import net.neoforged.neoforge.network.handling.IPayloadContext;
+import net.sugar27.quests.ShugaQuestsMod;
+import net.sugar27.quests.client.QuestClientState;
+
+import java.util.Objects;
+
+// One slice of a streamed quest catalog; index 0 begins a stream and index chunkCount - 1 ends it.
+public record QuestCatalogChunkPacket(
+        String catalogHash,
+        int index,
+        int chunkCount,
+        int totalLength,
+        byte[] data
+) implements CustomPacketPayload {
+    public static final Type<QuestCatalogChunkPacket> TYPE = new Type<>(
+            Objects.requireNonNull(ResourceLocation.fromNamespaceAndPath(ShugaQuestsMod.MODID, "quest_catalog_chunk"))
+    );
+    public static final StreamCodec<RegistryFriendlyByteBuf, QuestCatalogChunkPacket> STREAM_CODEC =
+            StreamCodec.of(QuestCatalogChunkPacket::write, QuestCatalogChunkPacket::read);
+
+    // Encode the packet payload.
+    private static void write(RegistryFriendlyByteBuf buf, QuestCatalogChunkPacket payload) {
+        buf.writeUtf(Objects.requireNonNull(payload.catalogHash));
+        buf.writeVarInt(payload.index);
+        buf.writeVarInt(payload.chunkCount);
+        buf.writeVarInt(payload.totalLength);
+        buf.writeByteArray(Objects.requireNonNull(payload.data));
+    }
+
+    // Decode the packet payload.
+    private static QuestCatalogChunkPacket read(RegistryFriendlyByteBuf buf) {
+        String catalogHash = buf.readUtf();
+        int index = buf.readVarInt();
+        int chunkCount = buf.readVarInt();
+        int totalLength = buf.readVarInt();
+        byte[] data = buf.readByteArray(QuestCatalogStreamer.CHUNK_BYTES);
+        return new QuestCatalogChunkPacket(catalogHash, index, chunkCount, totalLength, data);
+    }
+
+    // Check whether this chunk begins a new stream.
+    public boolean isFirst() {
+        return index == 0;
+    }
+
+    // Check whether this chunk completes its stream.
+    public boolean isLast() {
+        return index == chunkCount - 1;
+    }
+
+    // Handle client-side chunk assembly.
+    public static void handle(QuestCatalogChunkPacket payload, IPayloadContext context) {
+        context.enqueueWork(() -> QuestClientState.applyCatalogChunk(payload));
+    }
+
+    @Override
+    public Type<? extends CustomPacketPayload> type() {
+        return TYPE;
+    }
+}
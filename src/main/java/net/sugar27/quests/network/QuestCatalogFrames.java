@@ -0,0 +1,162 @@
+// root/src/main/java/net/sugar27/quests/network/QuestCatalogFrames.java
+
+package net.sugar27.quests.network;
+
+import io.netty.buffer.Unpooled;
+import io.netty.handler.codec.DecoderException;
+import it.unimi.dsi.fastutil.ints.Int2IntMap;
+import it.unimi.dsi.fastutil.ints.Int2IntOpenHashMap;
+import it.unimi.dsi.fastutil.ints.IntList;
+import net.minecraft.network.FriendlyByteBuf;
+import net.sugar27.quests.quest.QuestDefinition;
+import net.sugar27.quests.server.lang.LangManager;
+import net.sugar27.quests.server.lang.LocalizedCatalog;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+
+// Encodes the localized quest catalog once per locale and shares the bytes across every full sync.
+// Each frame carries a content hash so clients can reuse a cached copy instead of downloading it.
+// Quests are encoded and hashed one entry at a time, so a reload re-encodes only the quests whose localized definition changed.
+public final class QuestCatalogFrames {
+    private static final Map<String, Frame> FRAMES = new HashMap<>();
+
+    // Utility class; no instantiation.
+    private QuestCatalogFrames() {
+    }
+
+    // Get the encoded catalog for a locale, re-encoding only the entries that changed since the locale's last frame.
+    public static Frame get(String locale) {
+        String normalized = LangManager.get().normalizeLocale(locale);
+        LocalizedCatalog localized = LangManager.get().getLocalized(normalized);
+        Frame frame = FRAMES.get(normalized);
+        if (frame == null || frame.localized != localized) {
+            frame = new Frame(localized, frame);
+            FRAMES.put(normalized, frame);
+        }
+        return frame;
+    }
+
+    // Decode an encoded catalog into definitions and their parallel dictionary ids.
+    public static void read(byte[] frame, List<QuestDefinition> definitions, IntList definitionIds) {
+        FriendlyByteBuf buf = new FriendlyByteBuf(Unpooled.wrappedBuffer(frame));
+        int questCount = buf.readVarInt();
+        for (int i = 0; i < questCount; i++) {
+            buf.readVarInt();
+            definitionIds.add(buf.readVarInt());
+            definitions.add(QuestDefinition.readFromBuf(buf));
+        }
+    }
+
+    // Compute the content hash of an encoded catalog: the digest of its entry digests in order.
+    // Returns an empty string for a malformed frame, so it never matches a real hash.
+    public static String hash(byte[] frame) {
+        FriendlyByteBuf buf = new FriendlyByteBuf(Unpooled.wrappedBuffer(frame));
+        MessageDigest entryDigest = newDigest();
+        MessageDigest catalogDigest = newDigest();
+        try {
+            int questCount = buf.readVarInt();
+            for (int i = 0; i < questCount; i++) {
+                int length = buf.readVarInt();
+                if (length < 0 || length > buf.readableBytes()) {
+                    return "";
+                }
+                entryDigest.update(frame, buf.readerIndex(), length);
+                catalogDigest.update(entryDigest.digest());
+                buf.skipBytes(length);
+            }
+        } catch (IndexOutOfBoundsException | DecoderException ex) {
+            return "";
+        }
+        return buf.isReadable() ? "" : HexFormat.of().formatHex(catalogDigest.digest());
+    }
+
+    private static MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException("SHA-256 is not available", ex);
+        }
+    }
+
+    private static byte[] encodeEntry(int questId, QuestDefinition definition, FriendlyByteBuf buf) {
+        buf.clear();
+        buf.writeVarInt(questId);
+        definition.writeToBuf(buf);
+        byte[] bytes = new byte[buf.readableBytes()];
+        buf.readBytes(bytes);
+        return bytes;
+    }
+
+    // Encoded catalog entries for one localized view, their combined hash, and the frame bytes assembled on first use.
+    public static final class Frame {
+        private final LocalizedCatalog localized;
+        private final byte[][] entries;
+        private final byte[][] digests;
+        private final String hash;
+        private byte[] bytes;
+
+        // Encode a view, reusing the entries of the previous frame whose localized definition is the same instance.
+        private Frame(LocalizedCatalog localized, Frame previous) {
+            this.localized = localized;
+            this.entries = new byte[localized.size()][];
+            byte[][] digests = new byte[localized.size()][];
+            Int2IntMap previousIndex = new Int2IntOpenHashMap();
+            previousIndex.defaultReturnValue(-1);
+            if (previous != null) {
+                for (int i = 0; i < previous.localized.size(); i++) {
+                    previousIndex.put(previous.localized.getQuestId(i), i);
+                }
+            }
+            MessageDigest entryDigest = newDigest();
+            MessageDigest catalogDigest = newDigest();
+            FriendlyByteBuf buf = new FriendlyByteBuf(Unpooled.buffer());
+            try {
+                for (int i = 0; i < localized.size(); i++) {
+                    int questId = localized.getQuestId(i);
+                    int at = previousIndex.get(questId);
+                    if (at >= 0 && previous.localized.get(at) == localized.get(i)) {
+                        entries[i] = previous.entries[at];
+                        digests[i] = previous.digests[at];
+                    } else {
+                        entries[i] = encodeEntry(questId, localized.get(i), buf);
+                        digests[i] = entryDigest.digest(entries[i]);
+                    }
+                    catalogDigest.update(digests[i]);
+                }
+            } finally {
+                buf.release();
+            }
+            this.digests = digests;
+            this.hash = HexFormat.of().formatHex(catalogDigest.digest());
+        }
+
+        // Get the content hash clients verify and cache the frame under.
+        public String hash() {
+            return hash;
+        }
+
+        // Get the encoded frame: the quest count, then each entry prefixed with its length.
+        public byte[] bytes() {
+            if (bytes == null) {
+                FriendlyByteBuf buf = new FriendlyByteBuf(Unpooled.buffer());
+                try {
+                    buf.writeVarInt(entries.length);
+                    for (byte[] entry : entries) {
+                        buf.writeVarInt(entry.length);
+                        buf.writeBytes(entry);
+                    }
+                    bytes = new byte[buf.readableBytes()];
+                    buf.readBytes(bytes);
+                } finally {
+                    buf.release();
+                }
+            }
+            return bytes;
+        }
+    }
+}
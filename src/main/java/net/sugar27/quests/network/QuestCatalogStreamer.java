@@ -0,0 +1,105 @@
+// root/src/main/java/net/sugar27/quests/network/QuestCatalogStreamer.java
+
+package net.sugar27.quests.network;
+
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.server.level.ServerPlayer;
+import net.neoforged.neoforge.network.PacketDistributor;
+import net.sugar27.quests.ShugaQuestsMod;
+import net.sugar27.quests.quest.QuestProgressManager;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+
+// Streams catalogs too large for a single payload to players in bounded chunks spread across ticks.
+public final class QuestCatalogStreamer {
+    private static final QuestCatalogStreamer INSTANCE = new QuestCatalogStreamer();
+    // Largest slice per chunk; catalogs up to this size are attached to the full sync directly.
+    public static final int CHUNK_BYTES = 32 * 1024;
+    private static final int CHUNKS_PER_TICK = 4;
+
+    private final Map<UUID, Stream> streams = new LinkedHashMap<>();
+
+    // Utility singleton; use get().
+    private QuestCatalogStreamer() {
+    }
+
+    // Get the singleton instance.
+    public static QuestCatalogStreamer get() {
+        return INSTANCE;
+    }
+
+    // Check whether a catalog needs streaming instead of being attached to the full sync.
+    public static boolean needsStreaming(QuestCatalogFrames.Frame catalog) {
+        return catalog.bytes().length > CHUNK_BYTES;
+    }
+
+    // Start streaming a catalog to a player, replacing any stream of a different catalog already in flight.
+    public void start(ServerPlayer player, QuestCatalogFrames.Frame catalog) {
+        Stream current = streams.get(player.getUUID());
+        if (current != null && current.catalog == catalog) {
+            return;
+        }
+        streams.put(player.getUUID(), new Stream(catalog));
+    }
+
+    // Send the next chunks of every stream; a finished stream is followed by a hash-only full sync.
+    public void tick(MinecraftServer server) {
+        if (streams.isEmpty()) {
+            return;
+        }
+        Iterator<Map.Entry<UUID, Stream>> iterator = streams.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Map.Entry<UUID, Stream> entry = iterator.next();
+            ServerPlayer player = server.getPlayerList().getPlayer(entry.getKey());
+            if (player == null) {
+                iterator.remove();
+                continue;
+            }
+            Stream stream = entry.getValue();
+            for (int i = 0; i < CHUNKS_PER_TICK && !stream.isDone(); i++) {
+                PacketDistributor.sendToPlayer(player, stream.next());
+            }
+            if (stream.isDone()) {
+                iterator.remove();
+                ShugaQuestsMod.LOGGER.debug("Streamed quest catalog {} to {} in {} chunks",
+                        stream.catalog.hash(), player.getName().getString(), stream.chunkCount);
+                new QuestProgressManager().syncFull(player, false);
+            }
+        }
+    }
+
+    // Forget a player's stream.
+    public void drop(UUID playerId) {
+        streams.remove(playerId);
+    }
+
+    // Chunk cursor over one catalog frame.
+    private static final class Stream {
+        private final QuestCatalogFrames.Frame catalog;
+        private final int chunkCount;
+        private int nextIndex;
+
+        private Stream(QuestCatalogFrames.Frame catalog) {
+            this.catalog = catalog;
+            this.chunkCount = Math.max(1, (catalog.bytes().length + CHUNK_BYTES - 1) / CHUNK_BYTES);
+        }
+
+        private boolean isDone() {
+            return nextIndex >= chunkCount;
+        }
+
+        private QuestCatalogChunkPacket next() {
+            byte[] bytes = catalog.bytes();
+            int from = nextIndex * CHUNK_BYTES;
+            int to = Math.min(bytes.length, from + CHUNK_BYTES);
+            QuestCatalogChunkPacket packet = new QuestCatalogChunkPacket(
+                    catalog.hash(), nextIndex, chunkCount, bytes.length, Arrays.copyOfRange(bytes, from, to));
+            nextIndex++;
+            return packet;
+        }
+    }
+}
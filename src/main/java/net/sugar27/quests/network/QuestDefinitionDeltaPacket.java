@@ -0,0 +1,90 @@
+// root/src/main/java/net/sugar27/quests/network/QuestDefinitionDeltaPacket.java
+
+package net.sugar27.quests.network;
+
+import it.unimi.dsi.fastutil.ints.IntList;
+import net.minecraft.network.RegistryFriendlyByteBuf;
+import net.minecraft.network.codec.StreamCodec;
+import net.minecraft.network.protocol.common.custom.CustomPacketPayload;
+import net.minecraft.resources.ResourceLocation;
+import net.neoforged.neoforge.network.handling.IPayloadContext;
+import net.sugar27.quests.ShugaQuestsMod;
+import net.sugar27.quests.client.QuestClientState;
+import net.sugar27.quests.quest.QuestDefinition;
+import net.sugar27.quests.server.lang.LangManager;
+import net.sugar27.quests.server.lang.LocalizedCatalog;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+
+// Patch of the client's quest catalog after a hot reload; catalogHash names the catalog the patch produces.
+public record QuestDefinitionDeltaPacket(
+        String catalogHash,
+        int[] definitionIds,
+        List<QuestDefinition> questDefinitions,
+        int[] removedIds
+) implements CustomPacketPayload {
+    public static final Type<QuestDefinitionDeltaPacket> TYPE = new Type<>(
+            Objects.requireNonNull(ResourceLocation.fromNamespaceAndPath(ShugaQuestsMod.MODID, "quest_definition_delta"))
+    );
+    public static final StreamCodec<RegistryFriendlyByteBuf, QuestDefinitionDeltaPacket> STREAM_CODEC =
+            StreamCodec.of(QuestDefinitionDeltaPacket::write, QuestDefinitionDeltaPacket::read);
+
+    // Build the patch for one locale from the dictionary ids of changed and removed quests.
+    public static QuestDefinitionDeltaPacket create(String locale, IntList changedIds, IntList removedIds) {
+        LocalizedCatalog localized = LangManager.get().getLocalized(locale);
+        List<QuestDefinition> definitions = new ArrayList<>(changedIds.size());
+        int[] definitionIds = new int[changedIds.size()];
+        int count = 0;
+        for (int i = 0; i < changedIds.size(); i++) {
+            QuestDefinition quest = localized.getById(changedIds.getInt(i));
+            if (quest != null) {
+                definitionIds[count++] = changedIds.getInt(i);
+                definitions.add(quest);
+            }
+        }
+        return new QuestDefinitionDeltaPacket(
+                QuestCatalogFrames.get(locale).hash(),
+                count == definitionIds.length ? definitionIds : Arrays.copyOf(definitionIds, count),
+                definitions,
+                removedIds.toIntArray()
+        );
+    }
+
+    // Encode the packet payload.
+    private static void write(RegistryFriendlyByteBuf buf, QuestDefinitionDeltaPacket payload) {
+        buf.writeUtf(Objects.requireNonNull(payload.catalogHash));
+        buf.writeVarInt(payload.questDefinitions.size());
+        for (int i = 0; i < payload.questDefinitions.size(); i++) {
+            buf.writeVarInt(payload.definitionIds[i]);
+            payload.questDefinitions.get(i).writeToBuf(buf);
+        }
+        buf.writeVarIntArray(Objects.requireNonNull(payload.removedIds));
+    }
+
+    // Decode the packet payload.
+    private static QuestDefinitionDeltaPacket read(RegistryFriendlyByteBuf buf) {
+        String catalogHash = buf.readUtf();
+        int count = buf.readVarInt();
+        int[] definitionIds = new int[count];
+        List<QuestDefinition> definitions = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            definitionIds[i] = buf.readVarInt();
+            definitions.add(QuestDefinition.readFromBuf(buf));
+        }
+        int[] removedIds = buf.readVarIntArray();
+        return new QuestDefinitionDeltaPacket(catalogHash, definitionIds, definitions, removedIds);
+    }
+
+    // Handle client-side catalog patching.
+    public static void handle(QuestDefinitionDeltaPacket payload, IPayloadContext context) {
+        context.enqueueWork(() -> QuestClientState.applyDefinitionDelta(payload));
+    }
+
+    @Override
+    public Type<? extends CustomPacketPayload> type() {
+        return TYPE;
+    }
+}
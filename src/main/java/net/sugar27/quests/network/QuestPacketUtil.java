@@ -6,7 +6,6 @@ import net.minecraft.network.RegistryFriendlyByteBuf;
 import net.minecraft.server.level.ServerPlayer;
 import net.neoforged.neoforge.network.handling.IPayloadContext;
 
-import java.util.Objects;
 import java.util.function.Consumer;
 
 // Shared helpers for quest network packets.
@@ -14,12 +13,12 @@ final class QuestPacketUtil {
     private QuestPacketUtil() {
     }
 
-    static void writeQuestId(RegistryFriendlyByteBuf buf, String questId) {
-        buf.writeUtf(Objects.requireNonNullElse(questId, ""));
+    static void writeQuestId(RegistryFriendlyByteBuf buf, int questId) {
+        buf.writeVarInt(questId);
     }
 
-    static String readQuestId(RegistryFriendlyByteBuf buf) {
-        return buf.readUtf();
+    static int readQuestId(RegistryFriendlyByteBuf buf) {
+        return buf.readVarInt();
     }
 
     static void withServerPlayer(IPayloadContext context, Consumer<net.minecraft.server.level.ServerPlayer> action) {
@@ -0,0 +1,80 @@
+// root/src/main/java/net/sugar27/quests/network/QuestProgressDeltaPacket.java
+
+package net.sugar27.quests.network;
+
+import net.minecraft.network.RegistryFriendlyByteBuf;
+import net.minecraft.network.codec.StreamCodec;
+import net.minecraft.network.protocol.common.custom.CustomPacketPayload;
+import net.minecraft.resources.ResourceLocation;
+import net.neoforged.neoforge.network.handling.IPayloadContext;
+import net.sugar27.quests.ShugaQuestsMod;
+import net.sugar27.quests.client.QuestClientState;
+
+import java.util.Objects;
+
+// Compact progress patch for a single quest, addressed by dictionary id.
+// Only the first countLength/completedLength entries of the arrays are part of the patch.
+public record QuestProgressDeltaPacket(
+        int questId,
+        int flags,
+        int[] counts,
+        int countLength,
+        int[] completedObjectives,
+        int completedLength,
+        QuestSyncPacket.NotificationType notificationType
+) implements CustomPacketPayload {
+    // The quest is now completed.
+    public static final int FLAG_QUEST_COMPLETED = 1;
+    // Rewards for the quest were granted.
+    public static final int FLAG_REWARDS_GRANTED = 1 << 1;
+    // The quest is no longer the active quest.
+    public static final int FLAG_ACTIVE_CLEARED = 1 << 2;
+
+    public static final Type<QuestProgressDeltaPacket> TYPE = new Type<>(
+            Objects.requireNonNull(ResourceLocation.fromNamespaceAndPath(ShugaQuestsMod.MODID, "quest_progress_delta"))
+    );
+    public static final StreamCodec<RegistryFriendlyByteBuf, QuestProgressDeltaPacket> STREAM_CODEC =
+            StreamCodec.of(QuestProgressDeltaPacket::write, QuestProgressDeltaPacket::read);
+
+    // Encode the packet payload; counts are (objective, criteria, count) triples.
+    private static void write(RegistryFriendlyByteBuf buf, QuestProgressDeltaPacket payload) {
+        buf.writeVarInt(payload.questId);
+        buf.writeByte(payload.flags);
+        buf.writeEnum(Objects.requireNonNull(payload.notificationType));
+        writeVarInts(buf, Objects.requireNonNull(payload.counts), payload.countLength);
+        writeVarInts(buf, Objects.requireNonNull(payload.completedObjectives), payload.completedLength);
+    }
+
+    // Same wire format as writeVarIntArray, for a prefix of the array.
+    private static void writeVarInts(RegistryFriendlyByteBuf buf, int[] values, int length) {
+        buf.writeVarInt(length);
+        for (int i = 0; i < length; i++) {
+            buf.writeVarInt(values[i]);
+        }
+    }
+
+    // Decode the packet payload.
+    private static QuestProgressDeltaPacket read(RegistryFriendlyByteBuf buf) {
+        int questId = buf.readVarInt();
+        int flags = buf.readUnsignedByte();
+        QuestSyncPacket.NotificationType notificationType = buf.readEnum(QuestSyncPacket.NotificationType.class);
+        int[] counts = buf.readVarIntArray();
+        int[] completedObjectives = buf.readVarIntArray();
+        return new QuestProgressDeltaPacket(questId, flags, counts, counts.length, completedObjectives, completedObjectives.length, notificationType);
+    }
+
+    // Check whether a flag is set.
+    public boolean hasFlag(int flag) {
+        return (flags & flag) != 0;
+    }
+
+    // Handle client-side progress patching.
+    public static void handle(QuestProgressDeltaPacket payload, IPayloadContext context) {
+        context.enqueueWork(() -> QuestClientState.applyProgressDelta(payload));
+    }
+
+    @Override
+    public Type<? extends CustomPacketPayload> type() {
+        return TYPE;
+    }
+}
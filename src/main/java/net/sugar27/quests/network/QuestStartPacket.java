@@ -13,7 +13,7 @@ import net.sugar27.quests.quest.QuestProgressManager;
 import java.util.Objects;
 
 // Client-to-server request to start a quest.
-public record QuestStartPacket(String questId) implements CustomPacketPayload {
+public record QuestStartPacket(int questId) implements CustomPacketPayload {
     public static final Type<QuestStartPacket> TYPE = new Type<>(
             Objects.requireNonNull(ResourceLocation.fromNamespaceAndPath(ShugaQuestsMod.MODID, "quest_start"))
     );
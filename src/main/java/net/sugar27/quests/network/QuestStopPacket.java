@@ -13,7 +13,7 @@ import net.sugar27.quests.quest.QuestProgressManager;
 import java.util.Objects;
 
 // Client-to-server request to stop a quest.
-public record QuestStopPacket(String questId) implements CustomPacketPayload {
+public record QuestStopPacket(int questId) implements CustomPacketPayload {
     public static final Type<QuestStopPacket> TYPE = new Type<>(
             Objects.requireNonNull(ResourceLocation.fromNamespaceAndPath(ShugaQuestsMod.MODID, "quest_stop"))
     );
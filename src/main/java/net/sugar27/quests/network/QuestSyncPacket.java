@@ -9,28 +9,35 @@ import net.minecraft.resources.ResourceLocation;
 import net.neoforged.neoforge.network.handling.IPayloadContext;
 import net.sugar27.quests.ShugaQuestsMod;
 import net.sugar27.quests.client.QuestClientState;
-import net.sugar27.quests.quest.QuestDefinition;
 import net.sugar27.quests.quest.QuestProgress;
 
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Objects;
 
-// Payload for syncing quest definitions and progress to clients.
+// Payload for syncing quest definitions and progress to clients; quests are addressed by dictionary id.
+// Full syncs always name the catalog hash; the encoded catalog itself is only attached when the client asked for it.
 public record QuestSyncPacket(
         SyncType syncType,
-        List<QuestDefinition> questDefinitions,
+        String catalogHash,
+        byte[] catalogFrame,
         List<QuestProgress> questProgresses,
-        List<String> dailyQuestIds,
-        String notificationQuestId,
+        long[] archivedQuests,
+        int[] dailyQuestIds,
+        int notificationQuestId,
         NotificationType notificationType,
-        String activeQuestId
+        int activeQuestId
 ) implements CustomPacketPayload {
     public static final Type<QuestSyncPacket> TYPE = new Type<>(
             Objects.requireNonNull(ResourceLocation.fromNamespaceAndPath(ShugaQuestsMod.MODID, "quest_sync"))
     );
     public static final StreamCodec<RegistryFriendlyByteBuf, QuestSyncPacket> STREAM_CODEC = StreamCodec.of(QuestSyncPacket::write, QuestSyncPacket::read);
 
+    // Check whether the encoded catalog is attached.
+    public boolean hasCatalog() {
+        return catalogFrame.length > 0;
+    }
+
     // Supported sync flavors.
     public enum SyncType {
         FULL,
@@ -47,56 +54,46 @@ public record QuestSyncPacket(
     // Encode the packet payload.
     private static void write(RegistryFriendlyByteBuf buf, QuestSyncPacket payload) {
         buf.writeEnum(Objects.requireNonNull(payload.syncType));
-        buf.writeVarInt(payload.questDefinitions.size());
-        for (QuestDefinition definition : payload.questDefinitions) {
-            definition.writeToBuf(buf);
-        }
+        buf.writeUtf(Objects.requireNonNull(payload.catalogHash));
+        buf.writeByteArray(Objects.requireNonNull(payload.catalogFrame));
         buf.writeVarInt(payload.questProgresses.size());
         for (QuestProgress progress : payload.questProgresses) {
             progress.writeToBuf(buf);
         }
-        buf.writeVarInt(payload.dailyQuestIds.size());
-        for (String id : payload.dailyQuestIds) {
-            buf.writeUtf(Objects.requireNonNull(id));
-        }
-        buf.writeUtf(Objects.requireNonNull(Objects.requireNonNullElse(payload.notificationQuestId, "")));
+        buf.writeLongArray(Objects.requireNonNull(payload.archivedQuests));
+        buf.writeVarIntArray(Objects.requireNonNull(payload.dailyQuestIds));
+        buf.writeVarInt(payload.notificationQuestId);
         buf.writeEnum(Objects.requireNonNull(payload.notificationType));
-        buf.writeUtf(Objects.requireNonNull(Objects.requireNonNullElse(payload.activeQuestId, "")));
+        buf.writeVarInt(payload.activeQuestId);
     }
 
     // Decode the packet payload.
     private static QuestSyncPacket read(RegistryFriendlyByteBuf buf) {
         SyncType syncType = buf.readEnum(SyncType.class);
-        int questCount = buf.readVarInt();
-        List<QuestDefinition> definitions = new ArrayList<>();
-        for (int i = 0; i < questCount; i++) {
-            definitions.add(QuestDefinition.readFromBuf(buf));
-        }
+        String catalogHash = buf.readUtf();
+        byte[] catalogFrame = buf.readByteArray();
         int progressCount = buf.readVarInt();
         List<QuestProgress> progresses = new ArrayList<>();
         for (int i = 0; i < progressCount; i++) {
             progresses.add(QuestProgress.readFromBuf(buf));
         }
-        int dailyCount = buf.readVarInt();
-        List<String> daily = new ArrayList<>();
-        for (int i = 0; i < dailyCount; i++) {
-            daily.add(buf.readUtf());
-        }
-        String notificationQuestId = buf.readUtf();
+        long[] archivedQuests = buf.readLongArray();
+        int[] daily = buf.readVarIntArray();
+        int notificationQuestId = buf.readVarInt();
         NotificationType notificationType = buf.readEnum(NotificationType.class);
-        String activeQuestId = buf.readUtf();
-        return new QuestSyncPacket(syncType, definitions, progresses, daily, notificationQuestId, notificationType, activeQuestId);
+        int activeQuestId = buf.readVarInt();
+        return new QuestSyncPacket(syncType, catalogHash, catalogFrame, progresses, archivedQuests, daily, notificationQuestId, notificationType, activeQuestId);
     }
 
     // Handle client-side sync processing.
     public static void handle(QuestSyncPacket payload, IPayloadContext context) {
         context.enqueueWork(() -> {
             ShugaQuestsMod.LOGGER.info(
-                    "Quest sync received: type={}, defs={}, progress={}, daily={}, notification={}, active={}",
+                    "Quest sync received: type={}, catalogBytes={}, progress={}, daily={}, notification={}, active={}",
                     payload.syncType(),
-                    payload.questDefinitions().size(),
+                    payload.catalogFrame().length,
                     payload.questProgresses().size(),
-                    payload.dailyQuestIds().size(),
+                    payload.dailyQuestIds().length,
                     payload.notificationType(),
                     payload.activeQuestId()
             );
@@ -12,20 +12,20 @@ import net.sugar27.quests.quest.QuestProgressManager;
 
 import java.util.Objects;
 
-// Client-to-server request for a full quest sync.
-public record QuestSyncRequestPacket() implements CustomPacketPayload {
+// Client-to-server request for a full quest sync; includeCatalog is set when the client has no cached copy.
+public record QuestSyncRequestPacket(boolean includeCatalog) implements CustomPacketPayload {
     public static final Type<QuestSyncRequestPacket> TYPE = new Type<>(
             Objects.requireNonNull(ResourceLocation.fromNamespaceAndPath(ShugaQuestsMod.MODID, "quest_sync_request"))
     );
     public static final StreamCodec<RegistryFriendlyByteBuf, QuestSyncRequestPacket> STREAM_CODEC =
-            StreamCodec.of((buf, payload) -> {
-            }, buf -> new QuestSyncRequestPacket());
+            StreamCodec.of((buf, payload) -> buf.writeBoolean(payload.includeCatalog),
+                    buf -> new QuestSyncRequestPacket(buf.readBoolean()));
 
     // Handle server-side sync request.
     public static void handle(QuestSyncRequestPacket payload, IPayloadContext context) {
         QuestPacketUtil.withServerPlayer(context, player -> {
-            ShugaQuestsMod.LOGGER.info("Quest sync request received from {}", player.getName().getString());
-            new QuestProgressManager().syncFull(player);
+            ShugaQuestsMod.LOGGER.info("Quest sync request received from {} (catalog={})", player.getName().getString(), payload.includeCatalog());
+            new QuestProgressManager().syncFull(player, payload.includeCatalog());
         });
     }
 
@@ -0,0 +1,42 @@
+// root/src/main/java/net/sugar27/quests/network/QuestUnlockPacket.java
+
+package net.sugar27.quests.network;
+
+import net.minecraft.network.RegistryFriendlyByteBuf;
+import net.minecraft.network.codec.StreamCodec;
+import net.minecraft.network.protocol.common.custom.CustomPacketPayload;
+import net.minecraft.resources.ResourceLocation;
+import net.neoforged.neoforge.network.handling.IPayloadContext;
+import net.sugar27.quests.ShugaQuestsMod;
+import net.sugar27.quests.client.QuestClientState;
+
+import java.util.Objects;
+
+// Dictionary ids of quests whose prerequisites a completion just satisfied; sent after the completing progress update.
+public record QuestUnlockPacket(int[] questIds) implements CustomPacketPayload {
+    public static final Type<QuestUnlockPacket> TYPE = new Type<>(
+            Objects.requireNonNull(ResourceLocation.fromNamespaceAndPath(ShugaQuestsMod.MODID, "quest_unlock"))
+    );
+    public static final StreamCodec<RegistryFriendlyByteBuf, QuestUnlockPacket> STREAM_CODEC =
+            StreamCodec.of(QuestUnlockPacket::write, QuestUnlockPacket::read);
+
+    // Encode the packet payload.
+    private static void write(RegistryFriendlyByteBuf buf, QuestUnlockPacket payload) {
+        buf.writeVarIntArray(Objects.requireNonNull(payload.questIds));
+    }
+
+    // Decode the packet payload.
+    private static QuestUnlockPacket read(RegistryFriendlyByteBuf buf) {
+        return new QuestUnlockPacket(buf.readVarIntArray());
+    }
+
+    // Handle client-side lock state updates.
+    public static void handle(QuestUnlockPacket payload, IPayloadContext context) {
+        context.enqueueWork(() -> QuestClientState.applyUnlocks(payload));
+    }
+
+    @Override
+    public Type<? extends CustomPacketPayload> type() {
+        return TYPE;
+    }
+}
@@ -2,8 +2,6 @@
 
 package net.sugar27.quests.quest;
 
-import com.google.gson.JsonObject;
-import com.google.gson.JsonParser;
 import com.mojang.serialization.Codec;
 import net.minecraft.nbt.CompoundTag;
 import net.minecraft.nbt.ListTag;
@@ -13,12 +11,8 @@ import net.minecraft.server.MinecraftServer;
 import net.minecraft.server.level.ServerLevel;
 import net.minecraft.world.level.saveddata.SavedData;
 import net.sugar27.quests.ShugaQuestsMod;
-import net.sugar27.quests.config.QuestConfigPaths;
 import net.sugar27.quests.config.QuestServerConfig;
 
-import java.io.IOException;
-import java.io.Reader;
-import java.nio.file.Files;
 import java.time.LocalDate;
 import java.time.ZoneId;
 import java.time.ZonedDateTime;
@@ -45,29 +39,10 @@ public final class DailyQuestManager {
         return INSTANCE;
     }
 
-    // Load daily candidate definitions from config.
-    public void loadCandidates() {
+    // Rebuild daily candidates from the daily quests of the loaded catalog.
+    public void rebuildCandidates() {
         dailyCandidates.clear();
-        try {
-            Files.createDirectories(QuestConfigPaths.getDailyDir());
-        } catch (IOException ex) {
-            ShugaQuestsMod.LOGGER.error("Failed to create daily quest directory", ex);
-            return;
-        }
-
-        try (var paths = Files.list(QuestConfigPaths.getDailyDir())) {
-            paths.filter(path -> path.toString().endsWith(".json")).forEach(path -> {
-                try (Reader reader = Files.newBufferedReader(path)) {
-                    JsonObject json = JsonParser.parseReader(reader).getAsJsonObject();
-                    QuestDefinition quest = QuestDefinition.fromJson(json);
-                    dailyCandidates.add(quest);
-                } catch (Exception ex) {
-                    ShugaQuestsMod.LOGGER.error("Failed to load daily quest file: {}", path, ex);
-                }
-            });
-        } catch (IOException ex) {
-            ShugaQuestsMod.LOGGER.error("Failed to list daily quest directory", ex);
-        }
+        dailyCandidates.addAll(QuestManager.get().getDailyPool());
     }
 
     // Ensure the daily selection is up to date for the current date.
@@ -83,7 +58,7 @@ public final class DailyQuestManager {
     // Reroll the daily quest set and persist it.
     public void reroll(MinecraftServer server, boolean force) {
         if (dailyCandidates.isEmpty()) {
-            loadCandidates();
+            rebuildCandidates();
         }
         ServerLevel level = server.overworld();
         DailyQuestData data = DailyQuestData.get(level);
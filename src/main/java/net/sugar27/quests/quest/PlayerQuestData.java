@@ -0,0 +1,197 @@
+// root/src/main/java/net/sugar27/quests/quest/PlayerQuestData.java
+
+package net.sugar27.quests.quest;
+
+import it.unimi.dsi.fastutil.ints.Int2LongMap;
+import it.unimi.dsi.fastutil.ints.Int2LongOpenHashMap;
+import it.unimi.dsi.fastutil.ints.Int2ObjectMap;
+import it.unimi.dsi.fastutil.ints.Int2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.objects.ObjectIterator;
+import net.minecraft.nbt.CompoundTag;
+import net.minecraft.nbt.ListTag;
+
+import java.util.BitSet;
+import java.util.UUID;
+import java.util.function.IntPredicate;
+
+// Quest progress and active quest for a single player, persisted as its own file.
+// Finished non-repeatable quests are archived as a bit plus a completion time instead of full progress.
+public final class PlayerQuestData {
+    private final UUID playerId;
+    private final Int2ObjectMap<QuestProgress> progress = new Int2ObjectOpenHashMap<>();
+    private final BitSet archivedQuests = new BitSet();
+    private final Int2LongMap archivedAt = new Int2LongOpenHashMap();
+    private int activeQuestId = QuestIdDictionary.NO_QUEST;
+    private boolean dirty;
+
+    // Create empty data for a player.
+    public PlayerQuestData(UUID playerId) {
+        this.playerId = playerId;
+    }
+
+    // Get the owning player's id.
+    public UUID playerId() {
+        return playerId;
+    }
+
+    // Get the progress map keyed by dictionary quest id.
+    public Int2ObjectMap<QuestProgress> getProgress() {
+        return progress;
+    }
+
+    // Get or create progress for a quest.
+    public QuestProgress getOrCreateProgress(int questId) {
+        QuestProgress existing = progress.get(questId);
+        if (existing == null) {
+            existing = new QuestProgress(questId);
+            progress.put(questId, existing);
+        }
+        return existing;
+    }
+
+    // Check whether a quest is completed, either archived or through its full progress.
+    public boolean isQuestCompleted(int questId) {
+        if (isArchived(questId)) {
+            return true;
+        }
+        QuestProgress questProgress = progress.get(questId);
+        return questProgress != null && questProgress.isCompleted();
+    }
+
+    // Check whether a quest was archived as finished.
+    public boolean isArchived(int questId) {
+        return questId >= 0 && archivedQuests.get(questId);
+    }
+
+    // Get the ids of every archived quest.
+    public BitSet getArchivedQuests() {
+        return archivedQuests;
+    }
+
+    // Drop a quest's full progress and keep only its completed bit and completion time.
+    public void archive(QuestProgress questProgress) {
+        progress.remove(questProgress.questId());
+        markArchived(questProgress);
+    }
+
+    // Archive every finished, rewarded quest that the predicate reports as non-repeatable; returns true if any were archived.
+    public boolean archiveFinished(IntPredicate isRepeatable) {
+        boolean archived = false;
+        ObjectIterator<QuestProgress> iterator = progress.values().iterator();
+        while (iterator.hasNext()) {
+            QuestProgress questProgress = iterator.next();
+            int questId = questProgress.questId();
+            if (questId == activeQuestId || !questProgress.isCompleted() || !questProgress.rewardsGranted() || isRepeatable.test(questId)) {
+                continue;
+            }
+            iterator.remove();
+            markArchived(questProgress);
+            archived = true;
+        }
+        return archived;
+    }
+
+    private void markArchived(QuestProgress questProgress) {
+        archivedQuests.set(questProgress.questId());
+        archivedAt.put(questProgress.questId(), questProgress.completedAt());
+    }
+
+    // Forget a quest's progress, archived or not.
+    public void resetQuest(int questId) {
+        progress.remove(questId);
+        if (questId >= 0) {
+            archivedQuests.clear(questId);
+        }
+        archivedAt.remove(questId);
+    }
+
+    // Forget every quest's progress.
+    public void resetAll() {
+        progress.clear();
+        archivedQuests.clear();
+        archivedAt.clear();
+    }
+
+    public int getActiveQuestId() {
+        return activeQuestId;
+    }
+
+    public void setActiveQuestId(int questId) {
+        this.activeQuestId = questId;
+    }
+
+    // Check whether the player is tracking a quest.
+    public boolean hasActiveQuest() {
+        return activeQuestId != QuestIdDictionary.NO_QUEST;
+    }
+
+    // Mark this player's data as needing a write.
+    public void setDirty() {
+        this.dirty = true;
+    }
+
+    // Check whether this player's data needs a write.
+    public boolean isDirty() {
+        return dirty;
+    }
+
+    // Clear the dirty flag after a successful write.
+    public void clearDirty() {
+        this.dirty = false;
+    }
+
+    // Take a detached copy of this player's data that can be encoded on another thread.
+    public PlayerQuestData snapshot() {
+        PlayerQuestData copy = new PlayerQuestData(playerId);
+        for (QuestProgress questProgress : progress.values()) {
+            copy.progress.put(questProgress.questId(), questProgress.copy());
+        }
+        copy.archivedQuests.or(archivedQuests);
+        copy.archivedAt.putAll(archivedAt);
+        copy.activeQuestId = activeQuestId;
+        return copy;
+    }
+
+    // Load a player's data from NBT.
+    public static PlayerQuestData loadFromTag(UUID playerId, CompoundTag tag) {
+        PlayerQuestData data = new PlayerQuestData(playerId);
+        ListTag questTags = tag.getListOrEmpty("quests");
+        for (int q = 0; q < questTags.size(); q++) {
+            QuestProgress questProgress = QuestProgress.loadFromTag(questTags.getCompoundOrEmpty(q));
+            data.progress.put(questProgress.questId(), questProgress);
+        }
+        data.archivedQuests.or(BitSet.valueOf(tag.getLongArray("archived").orElse(new long[0])));
+        long[] times = tag.getLongArray("archivedAt").orElse(new long[0]);
+        int t = 0;
+        for (int questId = data.archivedQuests.nextSetBit(0); questId >= 0; questId = data.archivedQuests.nextSetBit(questId + 1)) {
+            data.archivedAt.put(questId, t < times.length ? times[t++] : 0L);
+        }
+        data.activeQuestId = tag.getInt("activeQuest")
+                .orElseGet(() -> QuestIdDictionary.get().assign(tag.getStringOr("activeQuestId", "")));
+        return data;
+    }
+
+    // Save a player's data to NBT.
+    public CompoundTag saveToTag() {
+        CompoundTag tag = new CompoundTag();
+        ListTag questTags = new ListTag();
+        for (QuestProgress questProgress : progress.values()) {
+            questTags.add(questProgress.saveToTag());
+        }
+        tag.put("quests", questTags);
+        if (!archivedQuests.isEmpty()) {
+            // Completion times are stored in ascending quest id order, matching the set bits.
+            long[] times = new long[archivedQuests.cardinality()];
+            int t = 0;
+            for (int questId = archivedQuests.nextSetBit(0); questId >= 0; questId = archivedQuests.nextSetBit(questId + 1)) {
+                times[t++] = archivedAt.get(questId);
+            }
+            tag.putLongArray("archived", archivedQuests.toLongArray());
+            tag.putLongArray("archivedAt", times);
+        }
+        if (hasActiveQuest()) {
+            tag.putInt("activeQuest", activeQuestId);
+        }
+        return tag;
+    }
+}
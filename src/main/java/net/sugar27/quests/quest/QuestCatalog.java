@@ -0,0 +1,332 @@
+// root/src/main/java/net/sugar27/quests/quest/QuestCatalog.java
+
+package net.sugar27.quests.quest;
+
+import it.unimi.dsi.fastutil.ints.Int2ObjectMap;
+import it.unimi.dsi.fastutil.ints.Int2ObjectMaps;
+import it.unimi.dsi.fastutil.ints.Int2ObjectOpenHashMap;
+import net.sugar27.quests.config.QuestConfigPaths;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+// Immutable snapshot of the loaded quests and every index derived from them.
+// A reload builds a new snapshot and QuestManager publishes it in one step, so readers never see a partial catalog.
+public final class QuestCatalog {
+    public static final QuestCatalog EMPTY = new Builder().build();
+    private static final Comparator<QuestDefinition> QUEST_ORDER = Comparator.comparing(QuestDefinition::id);
+
+    private final Map<String, QuestDefinition> quests;
+    private final List<QuestDefinition> orderedQuests;
+    private final List<QuestDefinition> dailyPool;
+    private final Map<String, Path> questSources;
+    private final Map<Path, String> fileQuestIds;
+    private final Int2ObjectMap<QuestDefinition> questsById;
+    private final Int2ObjectMap<QuestLocationIndex> locationIndexes;
+    private final Map<QuestCriteriaType, List<QuestDefinition>> criteriaIndex;
+    private final QuestTargetFilter targetFilter;
+    private final QuestPrerequisiteGraph prerequisiteGraph;
+
+    private QuestCatalog(Builder builder) {
+        builder.built = true;
+        List<QuestDefinition> ordered = builder.ordered;
+        if (ordered == null) {
+            ordered = new ArrayList<>(builder.quests.values());
+            ordered.sort(QUEST_ORDER);
+        }
+        Map<QuestCriteriaType, List<QuestDefinition>> byType = new EnumMap<>(QuestCriteriaType.class);
+        if (builder.criteriaIndex != null) {
+            byType.putAll(builder.criteriaIndex);
+        } else {
+            for (QuestCriteriaType type : QuestCriteriaType.values()) {
+                byType.put(type, new ArrayList<>());
+            }
+            for (QuestDefinition quest : ordered) {
+                for (QuestCriteriaType type : getCriteriaTypes(quest)) {
+                    byType.get(type).add(quest);
+                }
+            }
+        }
+        // Lists carried over from the previous snapshot are already immutable, so copyOf keeps them as they are.
+        byType.replaceAll((type, list) -> List.copyOf(list));
+
+        // The builder is spent once built, so its maps are handed over instead of copied again.
+        this.quests = Collections.unmodifiableMap(builder.quests);
+        this.orderedQuests = ordered == builder.ordered && !builder.orderedEdited
+                ? ordered
+                : Collections.unmodifiableList(ordered);
+        this.questSources = Collections.unmodifiableMap(builder.questSources);
+        this.fileQuestIds = Collections.unmodifiableMap(builder.fileQuestIds);
+        this.questsById = Int2ObjectMaps.unmodifiable(builder.questsById);
+        this.locationIndexes = Int2ObjectMaps.unmodifiable(builder.locationIndexes);
+        this.criteriaIndex = Collections.unmodifiableMap(byType);
+        this.dailyPool = builder.dailyPool != null ? builder.dailyPool : collectDailyPool(builder);
+        this.targetFilter = builder.targetFilter != null ? builder.targetFilter : QuestTargetFilter.build(ordered);
+        this.prerequisiteGraph = builder.prerequisiteGraph != null
+                ? builder.prerequisiteGraph
+                : QuestPrerequisiteGraph.build(questsById);
+    }
+
+    // Get a quest definition by string id.
+    public QuestDefinition getQuest(String id) {
+        return quests.get(id);
+    }
+
+    // Get a quest definition by dictionary id.
+    public QuestDefinition getQuest(int id) {
+        return questsById.get(id);
+    }
+
+    // Get all quest definitions by string id.
+    public Map<String, QuestDefinition> getAll() {
+        return quests;
+    }
+
+    // Get all quest definitions sorted by string id.
+    public List<QuestDefinition> getOrdered() {
+        return orderedQuests;
+    }
+
+    // Get the quests loaded from the daily directory, in file order.
+    public List<QuestDefinition> getDailyPool() {
+        return dailyPool;
+    }
+
+    // Get the spatial index over a quest's location criteria.
+    public QuestLocationIndex getLocationIndex(int questId) {
+        QuestLocationIndex index = locationIndexes.get(questId);
+        return index == null ? QuestLocationIndex.EMPTY : index;
+    }
+
+    // Get quests indexed by criteria type.
+    public List<QuestDefinition> getQuestsByCriteriaType(QuestCriteriaType type) {
+        return criteriaIndex.getOrDefault(type, List.of());
+    }
+
+    // Check whether an event target is referenced by any quest.
+    public boolean isTargetRelevant(QuestCriteriaType type, int targetId) {
+        return targetFilter.isRelevant(type, targetId);
+    }
+
+    // Get the prerequisite edges and dependents index between quests.
+    public QuestPrerequisiteGraph getPrerequisiteGraph() {
+        return prerequisiteGraph;
+    }
+
+    // Get the number of quests.
+    public int size() {
+        return quests.size();
+    }
+
+    // Start a builder holding this snapshot's contents; derived indexes are shared and patched per edited quest, not rebuilt.
+    public Builder toBuilder() {
+        Builder builder = new Builder();
+        builder.quests.putAll(quests);
+        builder.questSources.putAll(questSources);
+        builder.fileQuestIds.putAll(fileQuestIds);
+        builder.questsById.putAll(questsById);
+        builder.locationIndexes.putAll(locationIndexes);
+        builder.criteriaIndex(criteriaIndex);
+        builder.ordered = orderedQuests;
+        builder.dailyPool = dailyPool;
+        builder.targetFilter = targetFilter;
+        builder.prerequisiteGraph = prerequisiteGraph;
+        return builder;
+    }
+
+    private static List<QuestDefinition> collectDailyPool(Builder builder) {
+        if (builder.questSources.isEmpty()) {
+            return List.of();
+        }
+        Path dailyDir = QuestConfigPaths.getDailyDir();
+        List<QuestDefinition> pool = new ArrayList<>();
+        builder.questSources.entrySet().stream()
+                .filter(entry -> dailyDir.equals(entry.getValue().getParent()))
+                .sorted(Map.Entry.comparingByValue())
+                .forEach(entry -> pool.add(builder.quests.get(entry.getKey())));
+        return List.copyOf(pool);
+    }
+
+    // Get every criteria type a quest's objectives use.
+    static Set<QuestCriteriaType> getCriteriaTypes(QuestDefinition quest) {
+        Set<QuestCriteriaType> types = EnumSet.noneOf(QuestCriteriaType.class);
+        for (QuestObjective objective : quest.objectives()) {
+            for (QuestCriteria criteria : objective.criteria()) {
+                types.add(criteria.type());
+            }
+        }
+        return types;
+    }
+
+    // Mutable staging area for the next snapshot; confined to the thread that builds it.
+    public static final class Builder {
+        private final Map<String, QuestDefinition> quests = new HashMap<>();
+        private final Map<String, Path> questSources = new HashMap<>();
+        private final Map<Path, String> fileQuestIds = new HashMap<>();
+        private final Int2ObjectMap<QuestDefinition> questsById = new Int2ObjectOpenHashMap<>();
+        private final Int2ObjectMap<QuestLocationIndex> locationIndexes = new Int2ObjectOpenHashMap<>();
+        private Map<QuestCriteriaType, List<QuestDefinition>> criteriaIndex;
+        private final Set<QuestCriteriaType> editedTypes = EnumSet.noneOf(QuestCriteriaType.class);
+        // Structures carried over from the previous snapshot; null means build() derives them from scratch.
+        private List<QuestDefinition> ordered;
+        private boolean orderedEdited;
+        private List<QuestDefinition> dailyPool;
+        private QuestTargetFilter targetFilter;
+        private boolean targetFilterEdited;
+        private QuestPrerequisiteGraph prerequisiteGraph;
+        private boolean built;
+
+        // Get a staged quest by string id.
+        public QuestDefinition getQuest(String questId) {
+            return quests.get(questId);
+        }
+
+        // Get the file a staged quest was loaded from, or null.
+        public Path getSource(String questId) {
+            return questSources.get(questId);
+        }
+
+        // Get the quest id a file currently provides, or null.
+        public String getQuestIdAt(Path path) {
+            return fileQuestIds.get(path);
+        }
+
+        // Add or replace one quest and rebuild its location index.
+        public Builder put(int id, QuestDefinition quest, Path path) {
+            checkOpen();
+            reindex(quests.get(quest.id()), quest, questSources.get(quest.id()), path);
+            quests.put(quest.id(), quest);
+            questSources.put(quest.id(), path);
+            fileQuestIds.put(path, quest.id());
+            questsById.put(id, quest);
+            QuestLocationIndex index = QuestLocationIndex.build(quest);
+            if (index.isEmpty()) {
+                locationIndexes.remove(id);
+            } else {
+                locationIndexes.put(id, index);
+            }
+            return this;
+        }
+
+        // Remove one quest; its dictionary id stays reserved.
+        public Builder remove(int id, String questId) {
+            checkOpen();
+            reindex(quests.get(questId), null, questSources.get(questId), null);
+            quests.remove(questId);
+            Path path = questSources.remove(questId);
+            if (path != null) {
+                fileQuestIds.remove(path);
+            }
+            questsById.remove(id);
+            locationIndexes.remove(id);
+            return this;
+        }
+
+        // Use a criteria index built ahead of time, listing quests in string id order; puts and removes patch it.
+        public Builder criteriaIndex(Map<QuestCriteriaType, List<QuestDefinition>> index) {
+            checkOpen();
+            this.criteriaIndex = new EnumMap<>(QuestCriteriaType.class);
+            this.criteriaIndex.putAll(index);
+            editedTypes.clear();
+            return this;
+        }
+
+        // Patch every carried-over index for one replaced, added or removed quest.
+        private void reindex(QuestDefinition previous, QuestDefinition next, Path previousPath, Path nextPath) {
+            reindexCriteria(previous, next);
+            if (ordered != null) {
+                if (!orderedEdited) {
+                    ordered = new ArrayList<>(ordered);
+                    orderedEdited = true;
+                }
+                move(ordered, previous, next);
+            }
+            if (dailyPool != null && (isDaily(previousPath) || isDaily(nextPath))) {
+                dailyPool = null;
+            }
+            if (targetFilter != null && (previous == null || next == null || !QuestTargetFilter.sameTargets(previous, next))) {
+                if (!targetFilterEdited) {
+                    targetFilter = targetFilter.copy();
+                    targetFilterEdited = true;
+                }
+                if (previous != null) {
+                    targetFilter.remove(previous);
+                }
+                if (next != null) {
+                    targetFilter.add(next);
+                }
+            }
+            // Adding or removing a quest can resolve or break other quests' references, so only a like-for-like swap keeps the graph.
+            if (previous == null || next == null || !previous.prerequisites().equals(next.prerequisites())) {
+                prerequisiteGraph = null;
+            }
+        }
+
+        // Move a quest between the criteria lists of the types it used and now uses; other lists stay shared.
+        private void reindexCriteria(QuestDefinition previous, QuestDefinition next) {
+            if (criteriaIndex == null) {
+                return;
+            }
+            if (previous != null) {
+                for (QuestCriteriaType type : getCriteriaTypes(previous)) {
+                    move(editable(type), previous, null);
+                }
+            }
+            if (next != null) {
+                for (QuestCriteriaType type : getCriteriaTypes(next)) {
+                    move(editable(type), null, next);
+                }
+            }
+        }
+
+        // Replace, insert or drop a quest in a list kept in string id order.
+        private static void move(List<QuestDefinition> list, QuestDefinition previous, QuestDefinition next) {
+            if (previous != null && (next == null || !previous.id().equals(next.id()))) {
+                int at = Collections.binarySearch(list, previous, QUEST_ORDER);
+                if (at >= 0) {
+                    list.remove(at);
+                }
+            }
+            if (next != null) {
+                int at = Collections.binarySearch(list, next, QUEST_ORDER);
+                if (at >= 0) {
+                    list.set(at, next);
+                } else {
+                    list.add(-at - 1, next);
+                }
+            }
+        }
+
+        private static boolean isDaily(Path path) {
+            return path != null && QuestConfigPaths.getDailyDir().equals(path.getParent());
+        }
+
+        private void checkOpen() {
+            if (built) {
+                throw new IllegalStateException("Catalog builder was already built");
+            }
+        }
+
+        // Copy a type's list the first time this builder changes it.
+        private List<QuestDefinition> editable(QuestCriteriaType type) {
+            if (editedTypes.add(type)) {
+                criteriaIndex.put(type, new ArrayList<>(criteriaIndex.getOrDefault(type, List.of())));
+            }
+            return criteriaIndex.get(type);
+        }
+
+        // Freeze the staged quests into a snapshot.
+        public QuestCatalog build() {
+            checkOpen();
+            return new QuestCatalog(this);
+        }
+    }
+}
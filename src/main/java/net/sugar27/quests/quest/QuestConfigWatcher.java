@@ -0,0 +1,128 @@
+// root/src/main/java/net/sugar27/quests/quest/QuestConfigWatcher.java
+
+package net.sugar27.quests.quest;
+
+import net.minecraft.server.MinecraftServer;
+import net.sugar27.quests.ShugaQuestsMod;
+import net.sugar27.quests.config.QuestConfigPaths;
+
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Watches the quest and lang folders and hands changed files to the server thread once edits settle.
+public final class QuestConfigWatcher {
+    private static final QuestConfigWatcher INSTANCE = new QuestConfigWatcher();
+    // Editors often write a file in several steps; wait this long after the last event before reloading.
+    private static final long SETTLE_NANOS = 250_000_000L;
+
+    private final Set<Path> changed = ConcurrentHashMap.newKeySet();
+    private volatile long lastEventAt;
+    private volatile boolean overflowed;
+    // Server-thread only; set while an overflow reload is building in the background.
+    private boolean reloading;
+    private WatchService watchService;
+
+    // Utility singleton; use get().
+    private QuestConfigWatcher() {
+    }
+
+    // Get the singleton instance.
+    public static QuestConfigWatcher get() {
+        return INSTANCE;
+    }
+
+    // Start watching the config folders.
+    public void start() {
+        if (watchService != null) {
+            return;
+        }
+        try {
+            watchService = FileSystems.getDefault().newWatchService();
+            for (Path dir : List.of(QuestConfigPaths.getQuestsDir(), QuestConfigPaths.getDailyDir(), QuestConfigPaths.getLangDir())) {
+                dir.register(watchService, StandardWatchEventKinds.ENTRY_CREATE,
+                        StandardWatchEventKinds.ENTRY_MODIFY, StandardWatchEventKinds.ENTRY_DELETE);
+            }
+        } catch (IOException ex) {
+            ShugaQuestsMod.LOGGER.error("Failed to watch quest config directory", ex);
+            stop();
+            return;
+        }
+        WatchService service = watchService;
+        Thread thread = new Thread(() -> poll(service), "ShugaQuests-ConfigWatcher");
+        thread.setDaemon(true);
+        thread.start();
+        ShugaQuestsMod.LOGGER.info("Watching {} for quest changes", QuestConfigPaths.getRootDir());
+    }
+
+    // Stop watching and forget pending changes.
+    public void stop() {
+        if (watchService != null) {
+            try {
+                watchService.close();
+            } catch (IOException ex) {
+                ShugaQuestsMod.LOGGER.warn("Failed to close quest config watcher", ex);
+            }
+            watchService = null;
+        }
+        changed.clear();
+        overflowed = false;
+    }
+
+    // Apply settled changes on the server thread; progressManager syncs players after a full reload.
+    public void tick(MinecraftServer server, QuestProgressManager progressManager) {
+        if ((changed.isEmpty() && !overflowed) || System.nanoTime() - lastEventAt < SETTLE_NANOS) {
+            return;
+        }
+        if (overflowed) {
+            if (reloading) {
+                return;
+            }
+            // Events were lost, so the changed set is incomplete; reload everything in the background.
+            overflowed = false;
+            changed.clear();
+            reloading = true;
+            QuestContentReloader.reloadAllAsync(server).whenCompleteAsync((ignored, error) -> {
+                reloading = false;
+                if (error != null) {
+                    ShugaQuestsMod.LOGGER.error("Quest reload after lost watch events failed", error);
+                    return;
+                }
+                progressManager.syncAll(server);
+            }, server);
+            return;
+        }
+        List<Path> paths = new ArrayList<>(changed);
+        changed.removeAll(paths);
+        QuestContentReloader.applyChanges(server, paths);
+    }
+
+    private void poll(WatchService service) {
+        try {
+            while (true) {
+                WatchKey key = service.take();
+                Path dir = (Path) key.watchable();
+                for (WatchEvent<?> event : key.pollEvents()) {
+                    if (event.kind() == StandardWatchEventKinds.OVERFLOW) {
+                        overflowed = true;
+                    } else if (event.context() instanceof Path name && name.toString().endsWith(".json")) {
+                        changed.add(dir.resolve(name));
+                    }
+                }
+                lastEventAt = System.nanoTime();
+                key.reset();
+            }
+        } catch (InterruptedException | ClosedWatchServiceException ex) {
+            // Watcher stopped.
+        }
+    }
+}
@@ -0,0 +1,145 @@
+// root/src/main/java/net/sugar27/quests/quest/QuestContentReloader.java
+
+package net.sugar27.quests.quest;
+
+import it.unimi.dsi.fastutil.ints.IntArrayList;
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.server.level.ServerPlayer;
+import net.sugar27.quests.config.QuestConfigPaths;
+import net.sugar27.quests.network.NetworkHandler;
+import net.sugar27.quests.network.QuestDefinitionDeltaPacket;
+import net.sugar27.quests.server.lang.LangManager;
+import net.sugar27.quests.server.lang.PlayerLocaleStore;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+
+// Reloads quest content in dependency order so every consumer derives from the same catalog.
+public final class QuestContentReloader {
+    // Utility class; no instantiation.
+    private QuestContentReloader() {
+    }
+
+    // Reload quest definitions, then the daily candidates drawn from them, then translations.
+    public static void reloadAll() {
+        QuestManager.get().loadAll();
+        DailyQuestManager.get().rebuildCandidates();
+        LangManager.get().reload();
+    }
+
+    // Load content at server start, from the compiled quest pack when it is up to date with the JSON files.
+    public static void loadStartup() {
+        QuestPackBundle.Contents pack = QuestPackBundle.loadIfFresh(QuestConfigPaths.getRootDir());
+        if (pack == null) {
+            reloadAll();
+            return;
+        }
+        QuestManager questManager = QuestManager.get();
+        questManager.publish(questManager.buildCatalog(pack));
+        DailyQuestManager.get().rebuildCandidates();
+        LangManager.get().load(pack.translations());
+    }
+
+    // Build the next catalog and read translations on a background thread, then publish both on the server thread.
+    // Call on the server thread. If a watcher edit was applied while building, the build may predate it, so it runs again.
+    public static CompletableFuture<Void> reloadAllAsync(MinecraftServer server) {
+        QuestCatalog startCatalog = QuestManager.get().getCatalog();
+        int startVersion = LangManager.get().getTranslationsVersion();
+        return CompletableFuture.supplyAsync(
+                        () -> new LoadedContent(QuestManager.get().buildCatalog(), LangManager.readLangDir()),
+                        runnable -> {
+                            Thread thread = new Thread(runnable, "ShugaQuests-Reload");
+                            thread.setDaemon(true);
+                            thread.start();
+                        })
+                .thenComposeAsync(loaded -> {
+                    if (QuestManager.get().getCatalog() != startCatalog
+                            || LangManager.get().getTranslationsVersion() != startVersion) {
+                        return reloadAllAsync(server);
+                    }
+                    QuestManager.get().publish(loaded.catalog());
+                    DailyQuestManager.get().rebuildCandidates();
+                    LangManager.get().load(loaded.translations());
+                    return CompletableFuture.completedFuture(null);
+                }, server);
+    }
+
+    // Apply edited quest and lang files, then patch each online player's catalog for their locale.
+    public static void applyChanges(MinecraftServer server, Collection<Path> files) {
+        List<Path> questFiles = new ArrayList<>();
+        List<Path> langFiles = new ArrayList<>();
+        for (Path path : files) {
+            Path dir = path.getParent();
+            if (dir.equals(QuestConfigPaths.getQuestsDir()) || dir.equals(QuestConfigPaths.getDailyDir())) {
+                questFiles.add(path);
+            } else if (dir.equals(QuestConfigPaths.getLangDir())) {
+                langFiles.add(path);
+            }
+        }
+        QuestCatalog previousCatalog = QuestManager.get().getCatalog();
+        int previousVersion = LangManager.get().getTranslationsVersion();
+        QuestManager.CatalogChange change = questFiles.isEmpty()
+                ? QuestManager.CatalogChange.NONE
+                : QuestManager.get().reloadFiles(questFiles);
+        Map<String, Set<String>> changedKeys = langFiles.isEmpty() ? Map.of() : LangManager.get().reloadFiles(langFiles);
+        if (change.isEmpty() && changedKeys.isEmpty()) {
+            return;
+        }
+        if (!change.isEmpty()) {
+            DailyQuestManager.get().rebuildCandidates();
+        }
+
+        Map<String, QuestDefinitionDeltaPacket> deltas = new HashMap<>();
+        for (ServerPlayer player : server.getPlayerList().getPlayers()) {
+            String locale = PlayerLocaleStore.getLocale(player.getUUID());
+            QuestDefinitionDeltaPacket delta = deltas.get(locale);
+            if (delta == null && !deltas.containsKey(locale)) {
+                delta = createDelta(locale, change, changedKeys, previousCatalog, previousVersion);
+                deltas.put(locale, delta);
+            }
+            if (delta != null) {
+                NetworkHandler.sendDefinitionDelta(player, delta);
+            }
+        }
+    }
+
+    // Collect the quests whose localized text or definition changed for a locale, or null when none did.
+    private static QuestDefinitionDeltaPacket createDelta(String locale, QuestManager.CatalogChange change, Map<String, Set<String>> changedKeys,
+                                                          QuestCatalog previousCatalog, int previousVersion) {
+        IntArrayList changedIds = new IntArrayList(change.upserted());
+        Set<String> localeKeys = changedKeys.getOrDefault(locale, Set.of());
+        // Missing keys fall back to the default locale, so its edits can show up in any locale.
+        Set<String> defaultKeys = changedKeys.getOrDefault(LangManager.DEFAULT_LOCALE, Set.of());
+        if (!localeKeys.isEmpty() || !defaultKeys.isEmpty()) {
+            QuestManager questManager = QuestManager.get();
+            for (QuestDefinition quest : questManager.getOrdered()) {
+                if (usesKey(quest, localeKeys) || usesKey(quest, defaultKeys)) {
+                    int id = questManager.getQuestId(quest.id());
+                    if (!changedIds.contains(id)) {
+                        changedIds.add(id);
+                    }
+                }
+            }
+        }
+        // Patch the view even when nothing changed for this locale, so the next full sync reuses it instead of rebuilding.
+        LangManager.get().patchLocalized(locale, previousCatalog, previousVersion, changedIds);
+        if (changedIds.isEmpty() && change.removed().isEmpty()) {
+            return null;
+        }
+        return QuestDefinitionDeltaPacket.create(locale, changedIds, change.removed());
+    }
+
+    // Content read off the server thread, published together.
+    private record LoadedContent(QuestCatalog catalog, Map<String, Map<String, String>> translations) {
+    }
+
+    private static boolean usesKey(QuestDefinition quest, Set<String> keys) {
+        return !keys.isEmpty() && (keys.contains(quest.titleKey()) || keys.contains(quest.descriptionKey()));
+    }
+}
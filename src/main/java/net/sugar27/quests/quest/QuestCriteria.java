@@ -3,12 +3,16 @@
 package net.sugar27.quests.quest;
 
 import com.google.gson.JsonObject;
+import net.minecraft.core.registries.Registries;
 import net.minecraft.network.FriendlyByteBuf;
+import net.minecraft.resources.ResourceKey;
 import net.minecraft.resources.ResourceLocation;
+import net.minecraft.world.level.Level;
+import net.minecraft.world.level.biome.Biome;
 import net.sugar27.quests.util.QuestJsonUtil;
 
 import java.util.Objects;
-// Represents a single criteria entry inside an objective.
+// Represents a single criteria entry inside an objective; dimension and biome are also kept as interned keys.
 public record QuestCriteria(
         QuestCriteriaType type,
         ResourceLocation item,
@@ -22,14 +26,25 @@ public record QuestCriteria(
         double x,
         double y,
         double z,
-        double radius
+        double radius,
+        ResourceKey<Level> dimensionKey,
+        ResourceKey<Biome> biomeKey
 ) {
+    // Create a criteria entry, interning its dimension and biome keys for identity comparison.
+    public QuestCriteria(QuestCriteriaType type, ResourceLocation item, ResourceLocation block, ResourceLocation entity, int count,
+                         ResourceLocation dimension, ResourceLocation biome, Double yMin, Double yMax,
+                         double x, double y, double z, double radius) {
+        this(type, item, block, entity, count, dimension, biome, yMin, yMax, x, y, z, radius,
+                dimension == null ? null : ResourceKey.create(Registries.DIMENSION, dimension),
+                biome == null ? null : ResourceKey.create(Registries.BIOME, biome));
+    }
+
     // Parse a criteria entry from JSON.
     public static QuestCriteria fromJson(JsonObject json) {
         QuestCriteriaType type = QuestCriteriaType.fromString(QuestJsonUtil.getString(json, "type"));
-        ResourceLocation item = QuestJsonUtil.getResource(json, "item");
-        ResourceLocation block = QuestJsonUtil.getResource(json, "block");
-        ResourceLocation entity = QuestJsonUtil.getResource(json, "entity");
+        ResourceLocation item = QuestJsonUtil.getValidResource(json, "item");
+        ResourceLocation block = QuestJsonUtil.getValidResource(json, "block");
+        ResourceLocation entity = QuestJsonUtil.getValidResource(json, "entity");
         int count = json.has("count") ? json.get("count").getAsInt() : 1;
         ResourceLocation dimension = QuestJsonUtil.getResource(json, "dimension");
         ResourceLocation biome = QuestJsonUtil.getResource(json, "biome");
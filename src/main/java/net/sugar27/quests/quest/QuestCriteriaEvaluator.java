@@ -4,8 +4,8 @@ package net.sugar27.quests.quest;
 
 // Strategy interface for evaluating criteria types.
 public interface QuestCriteriaEvaluator {
-    // Return the progress increment for this event context.
-    int getProgressIncrement(QuestCriteria criteria, QuestEventContext context);
+    // Return the progress increment for this event context; targetId is the criteria's resolved target.
+    int getProgressIncrement(QuestCriteria criteria, int targetId, QuestEventContext context);
 }
 
 
@@ -2,8 +2,8 @@
 
 package net.sugar27.quests.quest;
 
-import net.minecraft.core.BlockPos;
-import net.minecraft.resources.ResourceLocation;
+import net.minecraft.resources.ResourceKey;
+import net.minecraft.world.level.biome.Biome;
 
 import java.util.EnumMap;
 import java.util.Map;
@@ -26,46 +26,42 @@ public final class QuestCriteriaHandlers {
     }
 
     // Evaluate progress increment for a criteria against a context.
-    public static int getProgressIncrement(QuestCriteria criteria, QuestEventContext context) {
+    public static int getProgressIncrement(QuestCriteria criteria, int targetId, QuestEventContext context) {
         QuestCriteriaEvaluator evaluator = EVALUATORS.get(criteria.type());
         if (evaluator == null) {
             return 0;
         }
-        return evaluator.getProgressIncrement(criteria, context);
+        return evaluator.getProgressIncrement(criteria, targetId, context);
     }
 
     // Match criteria that use a target id (item, block, entity).
-    private static int matchTarget(QuestCriteria criteria, QuestEventContext context) {
+    private static int matchTarget(QuestCriteria criteria, int targetId, QuestEventContext context) {
         if (!matchesType(criteria, context)) {
             return 0;
         }
-        ResourceLocation target = context.targetId();
-        if (criteria.item() != null && !criteria.item().equals(target)) {
+        if (targetId == QuestTargetIds.UNKNOWN) {
             return 0;
         }
-        if (criteria.block() != null && !criteria.block().equals(target)) {
-            return 0;
-        }
-        if (criteria.entity() != null && !criteria.entity().equals(target)) {
+        if (targetId != QuestTargetIds.NONE && targetId != context.targetId()) {
             return 0;
         }
         return Math.max(1, context.count());
     }
 
     // Match criteria that require a location check.
-    private static int matchLocation(QuestCriteria criteria, QuestEventContext context) {
+    private static int matchLocation(QuestCriteria criteria, int targetId, QuestEventContext context) {
         if (!matchesType(criteria, context)) {
             return 0;
         }
         var level = context.level();
-        if (criteria.dimension() != null && level != null) {
-            if (!criteria.dimension().equals(level.dimension().location())) {
+        if (criteria.dimensionKey() != null && level != null) {
+            if (criteria.dimensionKey() != level.dimension()) {
                 return 0;
             }
         }
-        if (criteria.biome() != null && level != null) {
-            var biomeKey = level.getBiome(BlockPos.containing(context.x(), context.y(), context.z())).unwrapKey();
-            if (biomeKey.isEmpty() || !criteria.biome().equals(biomeKey.get().location())) {
+        if (criteria.biomeKey() != null && level != null) {
+            ResourceKey<Biome> biomeKey = QuestLocationTracker.get().getBiome(context.player(), level, context.x(), context.y(), context.z());
+            if (biomeKey != criteria.biomeKey()) {
                 return 0;
             }
         }
@@ -86,7 +82,7 @@ public final class QuestCriteriaHandlers {
     }
 
     // Placeholder for custom events in future expansions.
-    private static int matchCustom(QuestCriteria criteria, QuestEventContext context) {
+    private static int matchCustom(QuestCriteria criteria, int targetId, QuestEventContext context) {
         if (!matchesType(criteria, context)) {
             return 0;
         }
@@ -22,7 +22,7 @@ public record QuestDefinition(
         List<QuestObjective> objectives,
         List<QuestReward> rewards
 ) {
-    // Parse a quest definition from JSON.
+    // Parse a quest definition from a JSON tree; quest files are decoded by QuestJsonDecoder and only fall back to this.
     public static QuestDefinition fromJson(JsonObject json) {
         String id = json.get("id").getAsString().replace('/', '.');
         String titleKey = json.get("title_key").getAsString();
@@ -0,0 +1,204 @@
+// root/src/main/java/net/sugar27/quests/quest/QuestEventAccumulator.java
+
+package net.sugar27.quests.quest;
+
+import net.minecraft.server.level.ServerPlayer;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+// Sums criteria increments per player during a tick so they are applied once at tick end.
+// Entries are kept and zeroed between ticks, and recycled through a pool when a player's quest changes,
+// so accumulating an increment does not allocate once the pool and queues have grown to the player count.
+public final class QuestEventAccumulator {
+    private static final QuestEventAccumulator INSTANCE = new QuestEventAccumulator();
+    private final Map<UUID, PendingQuest> entries = new HashMap<>();
+    private List<PendingQuest> queued = new ArrayList<>();
+    private List<PendingQuest> flushing = new ArrayList<>();
+    private final List<PendingQuest> pool = new ArrayList<>();
+
+    // Utility singleton; use get().
+    private QuestEventAccumulator() {
+    }
+
+    // Get the singleton instance.
+    public static QuestEventAccumulator get() {
+        return INSTANCE;
+    }
+
+    // Add an increment to a player's criteria slot for the current tick.
+    public void add(ServerPlayer player, QuestInterestIndex.CompiledQuest quest, QuestInterestIndex.Slot slot, int increment) {
+        PendingQuest entry = entries.get(player.getUUID());
+        if (entry == null || entry.quest() != quest || entry.player() != player) {
+            if (entry != null) {
+                cancel(entry);
+            }
+            entry = pool.isEmpty() ? new PendingQuest() : pool.remove(pool.size() - 1);
+            entry.bind(player, quest);
+            entries.put(player.getUUID(), entry);
+        }
+        if (!entry.queued) {
+            entry.queued = true;
+            queued.add(entry);
+        }
+        entry.pending = true;
+        entry.add(slot.objectiveIndex(), slot.criteriaIndex(), increment);
+    }
+
+    // Check whether anything was accumulated this tick.
+    public boolean isEmpty() {
+        return queued.isEmpty();
+    }
+
+    // Move this tick's queue aside and return its size; increments added while it is applied queue for the next tick.
+    // Reward commands run mid-flush can fire quest events, so an entry may be queued again before endFlush().
+    public int beginFlush() {
+        List<PendingQuest> swap = flushing;
+        flushing = queued;
+        queued = swap;
+        for (int i = 0; i < flushing.size(); i++) {
+            PendingQuest entry = flushing.get(i);
+            entry.queued = false;
+            entry.flushing = true;
+        }
+        return flushing.size();
+    }
+
+    // Take the increments of an entry being flushed, or null if it was removed since; valid until endFlush().
+    public PendingQuest flushingAt(int index) {
+        PendingQuest entry = flushing.get(index);
+        if (entry.cancelled || !entry.pending) {
+            return null;
+        }
+        entry.take();
+        return entry;
+    }
+
+    // Forget the entries of a finished flush, returning removed ones to the pool.
+    public void endFlush() {
+        for (int i = 0; i < flushing.size(); i++) {
+            PendingQuest entry = flushing.get(i);
+            entry.flushing = false;
+            if (entry.cancelled && !entry.queued) {
+                release(entry);
+            }
+        }
+        flushing.clear();
+    }
+
+    // Remove the entry for a single player, returning it with its increments taken if any were queued.
+    // The queues are left alone so this is safe while a flush iterates them.
+    public PendingQuest remove(UUID playerId) {
+        PendingQuest entry = entries.remove(playerId);
+        if (entry == null || entry.cancelled) {
+            return null;
+        }
+        if (!entry.pending) {
+            cancel(entry);
+            return null;
+        }
+        // A pending entry is still queued, so the flush that drains it returns it to the pool after the caller is done.
+        entry.cancelled = true;
+        entry.take();
+        return entry;
+    }
+
+    // Mark an entry as replaced; it goes back to the pool once no queue refers to it.
+    private void cancel(PendingQuest entry) {
+        entry.cancelled = true;
+        if (!entry.queued && !entry.flushing) {
+            release(entry);
+        }
+    }
+
+    private void release(PendingQuest entry) {
+        entry.bind(null, null);
+        pool.add(entry);
+    }
+
+    // Summed increments for one player's active quest.
+    // Increments are double-buffered: take() hands the summed buffer to the caller and starts a zeroed one,
+    // so an increment added while the taken buffer is being applied is kept for the next flush.
+    public static final class PendingQuest {
+        private static final int[][] NONE = new int[0][];
+
+        private ServerPlayer player;
+        private QuestInterestIndex.CompiledQuest quest;
+        private int[][] increments = NONE;
+        private int[][] taken = NONE;
+        private boolean queued;
+        private boolean flushing;
+        private boolean pending;
+        private boolean cancelled;
+
+        private PendingQuest() {
+        }
+
+        // Point a fresh or recycled entry at a player's quest, growing its buffers only when the quest needs more slots.
+        private void bind(ServerPlayer player, QuestInterestIndex.CompiledQuest quest) {
+            this.player = player;
+            this.quest = quest;
+            if (quest != null) {
+                increments = fit(increments, quest.quest().objectives());
+                taken = fit(taken, quest.quest().objectives());
+            }
+            clear(increments);
+            clear(taken);
+            queued = false;
+            flushing = false;
+            pending = false;
+            cancelled = false;
+        }
+
+        private static int[][] fit(int[][] buffer, List<QuestObjective> objectives) {
+            int[][] fitted = buffer.length >= objectives.size() ? buffer : Arrays.copyOf(buffer, objectives.size());
+            for (int i = 0; i < objectives.size(); i++) {
+                int criteriaCount = objectives.get(i).criteria().size();
+                if (fitted[i] == null || fitted[i].length < criteriaCount) {
+                    fitted[i] = new int[criteriaCount];
+                }
+            }
+            return fitted;
+        }
+
+        private static void clear(int[][] buffer) {
+            for (int[] objectiveIncrements : buffer) {
+                if (objectiveIncrements != null) {
+                    Arrays.fill(objectiveIncrements, 0);
+                }
+            }
+        }
+
+        // Get the player the increments belong to.
+        public ServerPlayer player() {
+            return player;
+        }
+
+        // Get the compiled quest the increments were matched against.
+        public QuestInterestIndex.CompiledQuest quest() {
+            return quest;
+        }
+
+        // Get the summed increment for a criteria slot from the last taken buffer.
+        public int increment(int objectiveIndex, int criteriaIndex) {
+            return taken[objectiveIndex][criteriaIndex];
+        }
+
+        private void add(int objectiveIndex, int criteriaIndex, int increment) {
+            long sum = (long) increments[objectiveIndex][criteriaIndex] + increment;
+            increments[objectiveIndex][criteriaIndex] = (int) Math.min(Integer.MAX_VALUE, sum);
+        }
+
+        private void take() {
+            int[][] spare = taken;
+            clear(spare);
+            taken = increments;
+            increments = spare;
+            pending = false;
+        }
+    }
+}
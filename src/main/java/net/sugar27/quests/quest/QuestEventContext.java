@@ -2,21 +2,69 @@
 
 package net.sugar27.quests.quest;
 
-import net.minecraft.resources.ResourceLocation;
 import net.minecraft.server.level.ServerLevel;
 import net.minecraft.server.level.ServerPlayer;
 
-// Context for evaluating criteria against a game event.
-public record QuestEventContext(
-        ServerPlayer player,
-        QuestCriteriaType type,
-        ResourceLocation targetId,
-        int count,
-        ServerLevel level,
-        double x,
-        double y,
-        double z
-) {
-}
+// Context for evaluating criteria against a game event; targetId is a raw registry id.
+// Instances are reused by the server-thread event handler, so evaluators must not retain them.
+public final class QuestEventContext {
+    private ServerPlayer player;
+    private QuestCriteriaType type;
+    private int targetId;
+    private int count;
+    private ServerLevel level;
+    private double x;
+    private double y;
+    private double z;
+
+    // Refill this context for the next event and return it.
+    public QuestEventContext set(ServerPlayer player, QuestCriteriaType type, int targetId, int count, ServerLevel level, double x, double y, double z) {
+        this.player = player;
+        this.type = type;
+        this.targetId = targetId;
+        this.count = count;
+        this.level = level;
+        this.x = x;
+        this.y = y;
+        this.z = z;
+        return this;
+    }
+
+    // Drop references once the event has been handled.
+    public void clear() {
+        this.player = null;
+        this.level = null;
+    }
+
+    public ServerPlayer player() {
+        return player;
+    }
+
+    public QuestCriteriaType type() {
+        return type;
+    }
 
+    public int targetId() {
+        return targetId;
+    }
 
+    public int count() {
+        return count;
+    }
+
+    public ServerLevel level() {
+        return level;
+    }
+
+    public double x() {
+        return x;
+    }
+
+    public double y() {
+        return y;
+    }
+
+    public double z() {
+        return z;
+    }
+}
@@ -0,0 +1,155 @@
+// root/src/main/java/net/sugar27/quests/quest/QuestIdDictionary.java
+
+package net.sugar27.quests.quest;
+
+import it.unimi.dsi.fastutil.objects.Object2IntMap;
+import it.unimi.dsi.fastutil.objects.Object2IntOpenHashMap;
+import net.minecraft.nbt.CompoundTag;
+import net.minecraft.nbt.ListTag;
+import net.minecraft.nbt.NbtAccounter;
+import net.minecraft.nbt.NbtIo;
+import net.minecraft.nbt.StringTag;
+import net.sugar27.quests.ShugaQuestsMod;
+
+import java.io.IOException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+// Stable per-world mapping from quest string ids to dense ints; ids are never reused.
+// Synchronized because catalogs can be built off the server thread.
+public final class QuestIdDictionary {
+    // Id used when no quest is referenced.
+    public static final int NO_QUEST = -1;
+    private static final QuestIdDictionary INSTANCE = new QuestIdDictionary();
+    private static final String TEMP_EXTENSION = ".tmp";
+    private static final String BACKUP_EXTENSION = "_old";
+
+    private final List<String> names = new ArrayList<>();
+    private final Object2IntMap<String> ids = new Object2IntOpenHashMap<>();
+    private Path file;
+    private boolean dirty;
+
+    // Utility singleton; use get().
+    private QuestIdDictionary() {
+        ids.defaultReturnValue(NO_QUEST);
+    }
+
+    // Get the singleton instance.
+    public static QuestIdDictionary get() {
+        return INSTANCE;
+    }
+
+    // Bind to a world's dictionary file and load the existing assignments, falling back to the backup copy.
+    // Player files store these ids, so starting over from an empty dictionary would silently remap their progress.
+    public synchronized void open(Path dictionaryFile) {
+        names.clear();
+        ids.clear();
+        dirty = false;
+        file = dictionaryFile;
+        Path backup = getBackupFile(dictionaryFile);
+        if (!Files.exists(dictionaryFile) && !Files.exists(backup)) {
+            return;
+        }
+        try {
+            read(dictionaryFile);
+            return;
+        } catch (IOException ex) {
+            ShugaQuestsMod.LOGGER.error("Failed to load quest id dictionary: {}", dictionaryFile, ex);
+        }
+        try {
+            read(backup);
+            // Rewrite the damaged primary file on the next save.
+            dirty = true;
+            ShugaQuestsMod.LOGGER.warn("Loaded quest id dictionary from backup {}", backup);
+        } catch (IOException ex) {
+            file = null;
+            throw new IllegalStateException("Quest id dictionary " + dictionaryFile + " and its backup are unreadable; "
+                    + "restore one of them before starting the server", ex);
+        }
+    }
+
+    private void read(Path path) throws IOException {
+        names.clear();
+        ids.clear();
+        ListTag list = NbtIo.readCompressed(path, NbtAccounter.unlimitedHeap()).getListOrEmpty("quests");
+        for (int i = 0; i < list.size(); i++) {
+            String name = list.getStringOr(i, "");
+            names.add(name);
+            if (!name.isEmpty()) {
+                ids.put(name, i);
+            }
+        }
+    }
+
+    // Get the id of a quest, or NO_QUEST when it was never assigned.
+    public synchronized int getId(String questId) {
+        return questId == null ? NO_QUEST : ids.getInt(questId);
+    }
+
+    // Get the id of a quest, assigning the next free id when it is new.
+    public synchronized int assign(String questId) {
+        if (questId == null || questId.isEmpty()) {
+            return NO_QUEST;
+        }
+        int id = ids.getInt(questId);
+        if (id == NO_QUEST) {
+            id = names.size();
+            names.add(questId);
+            ids.put(questId, id);
+            dirty = true;
+        }
+        return id;
+    }
+
+    // Get the quest string id for an int id, or an empty string when unknown.
+    public synchronized String getName(int id) {
+        return id >= 0 && id < names.size() ? names.get(id) : "";
+    }
+
+    // Write the dictionary if new ids were assigned since the last save.
+    public synchronized void saveIfDirty() {
+        if (!dirty || file == null) {
+            return;
+        }
+        CompoundTag tag = new CompoundTag();
+        ListTag list = new ListTag();
+        for (String name : names) {
+            list.add(StringTag.valueOf(Objects.requireNonNull(name)));
+        }
+        tag.put("quests", list);
+        // Write through a temp file and rename, then refresh the backup from the file that just landed.
+        Path temp = file.resolveSibling(file.getFileName() + TEMP_EXTENSION);
+        try {
+            NbtIo.writeCompressed(tag, temp);
+            try {
+                Files.move(temp, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } catch (AtomicMoveNotSupportedException ex) {
+                Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING);
+            }
+            dirty = false;
+        } catch (IOException ex) {
+            ShugaQuestsMod.LOGGER.error("Failed to save quest id dictionary: {}", file, ex);
+            return;
+        }
+        try {
+            Files.copy(file, getBackupFile(file), StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException ex) {
+            ShugaQuestsMod.LOGGER.warn("Failed to back up quest id dictionary: {}", file, ex);
+        }
+    }
+
+    private static Path getBackupFile(Path dictionaryFile) {
+        return dictionaryFile.resolveSibling(dictionaryFile.getFileName() + BACKUP_EXTENSION);
+    }
+
+    // Save and unbind from the world.
+    public synchronized void close() {
+        saveIfDirty();
+        file = null;
+    }
+}
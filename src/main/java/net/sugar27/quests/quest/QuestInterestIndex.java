@@ -0,0 +1,122 @@
+// root/src/main/java/net/sugar27/quests/quest/QuestInterestIndex.java
+
+package net.sugar27.quests.quest;
+
+import it.unimi.dsi.fastutil.ints.Int2ObjectMap;
+import it.unimi.dsi.fastutil.ints.Int2ObjectOpenHashMap;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+// Per-player runtime index of the criteria slots that can advance the active quest.
+public final class QuestInterestIndex {
+    private static final QuestInterestIndex INSTANCE = new QuestInterestIndex();
+    private final Map<UUID, CompiledQuest> activeIndexes = new HashMap<>();
+
+    // Utility singleton; use get().
+    private QuestInterestIndex() {
+    }
+
+    // Get the singleton instance.
+    public static QuestInterestIndex get() {
+        return INSTANCE;
+    }
+
+    // Compile and bind the index for a player's newly active quest.
+    public CompiledQuest track(UUID playerId, QuestDefinition quest) {
+        CompiledQuest compiled = CompiledQuest.compile(quest);
+        activeIndexes.put(playerId, compiled);
+        return compiled;
+    }
+
+    // Get the bound index for a player, recompiling when the definition was reloaded.
+    public CompiledQuest resolve(UUID playerId, QuestDefinition quest) {
+        CompiledQuest compiled = activeIndexes.get(playerId);
+        if (compiled != null && compiled.quest() == quest) {
+            return compiled;
+        }
+        return track(playerId, quest);
+    }
+
+    // Drop the index when the player no longer has an active quest.
+    public void drop(UUID playerId) {
+        activeIndexes.remove(playerId);
+    }
+
+    // Drop every bound index.
+    public void clear() {
+        activeIndexes.clear();
+    }
+
+    // A single criteria position inside a quest definition.
+    public record Slot(int objectiveIndex, int criteriaIndex, QuestCriteria criteria, int targetId) {
+    }
+
+    // Criteria slots of one quest grouped by criteria type and target id.
+    public static final class CompiledQuest {
+        private final QuestDefinition quest;
+        private final Map<QuestCriteriaType, Int2ObjectMap<List<Slot>>> targetedSlots = new EnumMap<>(QuestCriteriaType.class);
+        private final Map<QuestCriteriaType, List<Slot>> untargetedSlots = new EnumMap<>(QuestCriteriaType.class);
+
+        private CompiledQuest(QuestDefinition quest) {
+            this.quest = quest;
+        }
+
+        // Build the slot lookup tables for a quest definition.
+        public static CompiledQuest compile(QuestDefinition quest) {
+            CompiledQuest compiled = new CompiledQuest(quest);
+            List<QuestObjective> objectives = quest.objectives();
+            for (int o = 0; o < objectives.size(); o++) {
+                List<QuestCriteria> criteriaList = objectives.get(o).criteria();
+                for (int c = 0; c < criteriaList.size(); c++) {
+                    QuestCriteria criteria = criteriaList.get(c);
+                    int targetId = QuestTargetIds.resolve(criteria);
+                    if (targetId == QuestTargetIds.UNKNOWN) {
+                        continue;
+                    }
+                    Slot slot = new Slot(o, c, criteria, targetId);
+                    if (targetId == QuestTargetIds.NONE) {
+                        compiled.untargetedSlots.computeIfAbsent(criteria.type(), key -> new ArrayList<>()).add(slot);
+                    } else {
+                        compiled.targetedSlots.computeIfAbsent(criteria.type(), key -> new Int2ObjectOpenHashMap<>())
+                                .computeIfAbsent(targetId, key -> new ArrayList<>())
+                                .add(slot);
+                    }
+                }
+            }
+            return compiled;
+        }
+
+        // Get the quest definition this index was compiled from.
+        public QuestDefinition quest() {
+            return quest;
+        }
+
+        // Check whether any slot listens to the given criteria type.
+        public boolean hasSlots(QuestCriteriaType type) {
+            return targetedSlots.containsKey(type) || untargetedSlots.containsKey(type);
+        }
+
+        // Get slots bound to a specific raw registry id.
+        public List<Slot> targeted(QuestCriteriaType type, int targetId) {
+            if (targetId < 0) {
+                return List.of();
+            }
+            Int2ObjectMap<List<Slot>> byTarget = targetedSlots.get(type);
+            if (byTarget == null) {
+                return List.of();
+            }
+            List<Slot> slots = byTarget.get(targetId);
+            return slots == null ? List.of() : slots;
+        }
+
+        // Get slots that accept any target for the given type.
+        public List<Slot> untargeted(QuestCriteriaType type) {
+            return untargetedSlots.getOrDefault(type, List.of());
+        }
+    }
+}
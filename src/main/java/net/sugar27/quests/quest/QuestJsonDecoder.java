@@ -0,0 +1,234 @@
+// root/src/main/java/net/sugar27/quests/quest/QuestJsonDecoder.java
+
+package net.sugar27.quests.quest;
+
+import com.google.gson.JsonParseException;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import net.minecraft.resources.ResourceLocation;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+// Single-pass decoder that builds quest records straight from a JsonReader, without an intermediate tree.
+// Field defaults match the fromJson methods; errors name the line, column and JSON path they occurred at.
+public final class QuestJsonDecoder {
+    // Utility class; no instantiation.
+    private QuestJsonDecoder() {
+    }
+
+    // Decode one quest definition document.
+    public static QuestDefinition readDefinition(Reader source) throws IOException {
+        JsonReader reader = new JsonReader(source);
+        // Match JsonParser.parseReader, which accepts comments and other lenient syntax.
+        reader.setLenient(true);
+        QuestDefinition quest = readDefinition(reader);
+        if (reader.peek() != JsonToken.END_DOCUMENT) {
+            throw error(reader, "Unexpected content after the quest definition");
+        }
+        return quest;
+    }
+
+    private static QuestDefinition readDefinition(JsonReader reader) throws IOException {
+        String id = null;
+        String titleKey = null;
+        String descriptionKey = null;
+        String category = null;
+        String type = QuestTypes.NORMAL;
+        boolean repeatable = false;
+        List<String> prerequisites = new ArrayList<>();
+        List<QuestObjective> objectives = new ArrayList<>();
+        List<QuestReward> rewards = new ArrayList<>();
+        reader.beginObject();
+        while (reader.hasNext()) {
+            String name = reader.nextName();
+            if (skipNull(reader)) {
+                continue;
+            }
+            switch (name) {
+                case "id" -> id = reader.nextString().replace('/', '.');
+                case "title_key" -> titleKey = reader.nextString();
+                case "description_key" -> descriptionKey = reader.nextString();
+                case "category" -> category = reader.nextString();
+                case "type" -> type = reader.nextString();
+                case "repeatable" -> repeatable = readBoolean(reader);
+                case "prerequisites" -> {
+                    reader.beginArray();
+                    while (reader.hasNext()) {
+                        prerequisites.add(reader.nextString().replace('/', '.'));
+                    }
+                    reader.endArray();
+                }
+                case "objectives" -> {
+                    reader.beginArray();
+                    while (reader.hasNext()) {
+                        objectives.add(readObjective(reader));
+                    }
+                    reader.endArray();
+                }
+                case "rewards" -> {
+                    reader.beginArray();
+                    while (reader.hasNext()) {
+                        rewards.add(readReward(reader));
+                    }
+                    reader.endArray();
+                }
+                default -> reader.skipValue();
+            }
+        }
+        reader.endObject();
+        requireKey(reader, id, "id");
+        requireKey(reader, titleKey, "title_key");
+        requireKey(reader, descriptionKey, "description_key");
+        return new QuestDefinition(id, titleKey, descriptionKey, QuestCategory.fromString(category), type, repeatable,
+                prerequisites, objectives, rewards);
+    }
+
+    private static QuestObjective readObjective(JsonReader reader) throws IOException {
+        String id = "objective";
+        QuestLogicOperator logic = QuestLogicOperator.AND;
+        List<QuestCriteria> criteria = new ArrayList<>();
+        reader.beginObject();
+        while (reader.hasNext()) {
+            String name = reader.nextName();
+            if (skipNull(reader)) {
+                continue;
+            }
+            switch (name) {
+                case "id" -> id = reader.nextString();
+                case "logic" -> {
+                    String value = reader.nextString();
+                    try {
+                        logic = QuestLogicOperator.valueOf(value.toUpperCase(Locale.ROOT));
+                    } catch (IllegalArgumentException ex) {
+                        throw error(reader, "Unknown objective logic '" + value + "'");
+                    }
+                }
+                case "criteria" -> {
+                    reader.beginArray();
+                    while (reader.hasNext()) {
+                        criteria.add(readCriteria(reader));
+                    }
+                    reader.endArray();
+                }
+                default -> reader.skipValue();
+            }
+        }
+        reader.endObject();
+        return new QuestObjective(id, logic, criteria);
+    }
+
+    private static QuestCriteria readCriteria(JsonReader reader) throws IOException {
+        String type = null;
+        ResourceLocation item = null;
+        ResourceLocation block = null;
+        ResourceLocation entity = null;
+        int count = 1;
+        ResourceLocation dimension = null;
+        ResourceLocation biome = null;
+        Double yMin = null;
+        Double yMax = null;
+        double x = 0D;
+        double y = 0D;
+        double z = 0D;
+        double radius = 0D;
+        reader.beginObject();
+        while (reader.hasNext()) {
+            String name = reader.nextName();
+            if (skipNull(reader)) {
+                continue;
+            }
+            switch (name) {
+                case "type" -> type = reader.nextString();
+                case "item" -> item = readValidResource(reader, name);
+                case "block" -> block = readValidResource(reader, name);
+                case "entity" -> entity = readValidResource(reader, name);
+                case "count" -> count = reader.nextInt();
+                case "dimension" -> dimension = ResourceLocation.tryParse(reader.nextString());
+                case "biome" -> biome = ResourceLocation.tryParse(reader.nextString());
+                case "y_min" -> yMin = reader.nextDouble();
+                case "y_max" -> yMax = reader.nextDouble();
+                case "x" -> x = reader.nextDouble();
+                case "y" -> y = reader.nextDouble();
+                case "z" -> z = reader.nextDouble();
+                case "radius" -> radius = reader.nextDouble();
+                default -> reader.skipValue();
+            }
+        }
+        reader.endObject();
+        return new QuestCriteria(QuestCriteriaType.fromString(type), item, block, entity, count, dimension, biome,
+                yMin, yMax, x, y, z, radius);
+    }
+
+    private static QuestReward readReward(JsonReader reader) throws IOException {
+        String type = null;
+        ResourceLocation item = null;
+        int count = 1;
+        int amount = 0;
+        ResourceLocation effect = null;
+        int duration = 0;
+        int amplifier = 0;
+        String command = null;
+        ResourceLocation advancement = null;
+        reader.beginObject();
+        while (reader.hasNext()) {
+            String name = reader.nextName();
+            if (skipNull(reader)) {
+                continue;
+            }
+            switch (name) {
+                case "type" -> type = reader.nextString();
+                case "item" -> item = ResourceLocation.tryParse(reader.nextString());
+                case "count" -> count = reader.nextInt();
+                case "amount" -> amount = reader.nextInt();
+                case "effect" -> effect = ResourceLocation.tryParse(reader.nextString());
+                case "duration" -> duration = reader.nextInt();
+                case "amplifier" -> amplifier = reader.nextInt();
+                case "command" -> command = reader.nextString();
+                case "id" -> advancement = ResourceLocation.tryParse(reader.nextString());
+                default -> reader.skipValue();
+            }
+        }
+        reader.endObject();
+        return new QuestReward(QuestRewardType.fromString(type), item, count, amount, effect, duration, amplifier, command, advancement);
+    }
+
+    // Treat an explicit null like an absent key.
+    private static boolean skipNull(JsonReader reader) throws IOException {
+        if (reader.peek() != JsonToken.NULL) {
+            return false;
+        }
+        reader.nextNull();
+        return true;
+    }
+
+    // Accept both true/false and their quoted forms, as the tree-based reader does.
+    private static boolean readBoolean(JsonReader reader) throws IOException {
+        return reader.peek() == JsonToken.STRING ? Boolean.parseBoolean(reader.nextString()) : reader.nextBoolean();
+    }
+
+    private static ResourceLocation readValidResource(JsonReader reader, String key) throws IOException {
+        String value = reader.nextString();
+        ResourceLocation location = ResourceLocation.tryParse(value);
+        if (location == null) {
+            throw error(reader, "Invalid resource id '" + value + "' for key '" + key + "'");
+        }
+        return location;
+    }
+
+    private static void requireKey(JsonReader reader, String value, String key) {
+        if (value == null) {
+            throw error(reader, "Missing required key '" + key + "'");
+        }
+    }
+
+    // JsonReader only exposes its line and column through toString(), as "JsonReader at line L column C path P".
+    private static JsonParseException error(JsonReader reader, String message) {
+        String location = reader.toString();
+        int at = location.indexOf(" at line ");
+        return new JsonParseException(message + (at >= 0 ? location.substring(at) : " at path " + reader.getPath()));
+    }
+}
@@ -0,0 +1,114 @@
+// root/src/main/java/net/sugar27/quests/quest/QuestLocationIndex.java
+
+package net.sugar27.quests.quest;
+
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import net.minecraft.core.SectionPos;
+import net.minecraft.resources.ResourceLocation;
+import net.minecraft.world.level.ChunkPos;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// Dimension-partitioned chunk grid over one quest's LOCATION_REACHED criteria.
+public final class QuestLocationIndex {
+    public static final QuestLocationIndex EMPTY = new QuestLocationIndex();
+    // Spheres spanning more chunks than this per axis are cheaper to test directly than to rasterize.
+    private static final int MAX_CELL_SPAN = 16;
+
+    private final Map<ResourceLocation, Partition> byDimension = new HashMap<>();
+    private final Partition anyDimension = new Partition();
+    private boolean empty = true;
+
+    private QuestLocationIndex() {
+    }
+
+    // Build the index for every location criteria of a quest.
+    public static QuestLocationIndex build(QuestDefinition quest) {
+        List<QuestInterestIndex.Slot> anyDimensionSlots = new ArrayList<>();
+        QuestLocationIndex index = new QuestLocationIndex();
+        List<QuestObjective> objectives = quest.objectives();
+        for (int o = 0; o < objectives.size(); o++) {
+            List<QuestCriteria> criteriaList = objectives.get(o).criteria();
+            for (int c = 0; c < criteriaList.size(); c++) {
+                QuestCriteria criteria = criteriaList.get(c);
+                if (criteria.type() != QuestCriteriaType.LOCATION_REACHED) {
+                    continue;
+                }
+                QuestInterestIndex.Slot slot = new QuestInterestIndex.Slot(o, c, criteria, QuestTargetIds.NONE);
+                if (criteria.dimension() == null) {
+                    anyDimensionSlots.add(slot);
+                    index.anyDimension.add(slot);
+                } else {
+                    index.byDimension.computeIfAbsent(criteria.dimension(), key -> new Partition()).add(slot);
+                }
+                index.empty = false;
+            }
+        }
+        // Criteria without a dimension filter apply in every dimension.
+        for (Partition partition : index.byDimension.values()) {
+            for (QuestInterestIndex.Slot slot : anyDimensionSlots) {
+                partition.add(slot);
+            }
+        }
+        return index.empty ? EMPTY : index;
+    }
+
+    // Check whether the quest has no location criteria at all.
+    public boolean isEmpty() {
+        return empty;
+    }
+
+    // Get the bounded criteria whose radius overlaps the chunk containing the position.
+    public List<QuestInterestIndex.Slot> nearby(ResourceLocation dimension, double x, double z) {
+        List<QuestInterestIndex.Slot> slots = partition(dimension).cells.get(ChunkPos.asLong(
+                SectionPos.blockToSectionCoord(x), SectionPos.blockToSectionCoord(z)));
+        return slots == null ? List.of() : slots;
+    }
+
+    // Get criteria that must be tested regardless of position: radius 0 (y or biome filters only) or very large radii.
+    public List<QuestInterestIndex.Slot> unbounded(ResourceLocation dimension) {
+        return partition(dimension).unbounded;
+    }
+
+    // Check whether any criteria can match at the position without evaluating them.
+    public boolean hasCandidates(ResourceLocation dimension, double x, double z) {
+        return !unbounded(dimension).isEmpty() || !nearby(dimension, x, z).isEmpty();
+    }
+
+    private Partition partition(ResourceLocation dimension) {
+        Partition partition = byDimension.get(dimension);
+        return partition == null ? anyDimension : partition;
+    }
+
+    // Grid cells and unbounded bucket for a single dimension.
+    private static final class Partition {
+        private final Long2ObjectMap<List<QuestInterestIndex.Slot>> cells = new Long2ObjectOpenHashMap<>();
+        private final List<QuestInterestIndex.Slot> unbounded = new ArrayList<>();
+
+        private void add(QuestInterestIndex.Slot slot) {
+            QuestCriteria criteria = slot.criteria();
+            double radius = criteria.radius();
+            if (radius <= 0D) {
+                unbounded.add(slot);
+                return;
+            }
+            int minX = SectionPos.blockToSectionCoord(criteria.x() - radius);
+            int maxX = SectionPos.blockToSectionCoord(criteria.x() + radius);
+            int minZ = SectionPos.blockToSectionCoord(criteria.z() - radius);
+            int maxZ = SectionPos.blockToSectionCoord(criteria.z() + radius);
+            if (maxX - minX >= MAX_CELL_SPAN || maxZ - minZ >= MAX_CELL_SPAN) {
+                unbounded.add(slot);
+                return;
+            }
+            for (int cx = minX; cx <= maxX; cx++) {
+                for (int cz = minZ; cz <= maxZ; cz++) {
+                    cells.computeIfAbsent(ChunkPos.asLong(cx, cz), key -> new ArrayList<>()).add(slot);
+                }
+            }
+        }
+    }
+}
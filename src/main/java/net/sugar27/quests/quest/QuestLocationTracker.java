@@ -0,0 +1,106 @@
+// root/src/main/java/net/sugar27/quests/quest/QuestLocationTracker.java
+
+package net.sugar27.quests.quest;
+
+import net.minecraft.core.BlockPos;
+import net.minecraft.resources.ResourceKey;
+import net.minecraft.resources.ResourceLocation;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.server.level.ServerPlayer;
+import net.minecraft.util.Mth;
+import net.minecraft.world.level.Level;
+import net.minecraft.world.level.biome.Biome;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+
+// Decides when a player's position needs a LOCATION_REACHED evaluation, and caches the biome they stand in.
+public final class QuestLocationTracker {
+    private static final QuestLocationTracker INSTANCE = new QuestLocationTracker();
+    // At most one LOCATION_REACHED evaluation per player per interval, moving or standing still.
+    private static final int DWELL_INTERVAL_TICKS = 40;
+
+    private final Map<UUID, PlayerState> states = new HashMap<>();
+
+    // Utility singleton; use get().
+    private QuestLocationTracker() {
+    }
+
+    // Get the singleton instance.
+    public static QuestLocationTracker get() {
+        return INSTANCE;
+    }
+
+    // Check whether the player stands where their active quest can progress and the dwell interval has passed.
+    // Every evaluation can award an increment, so moving only refreshes the candidate check and never skips the interval.
+    public boolean shouldEvaluate(ServerPlayer player) {
+        PlayerState state = getState(player.getUUID());
+        if (player.tickCount - state.evaluatedAt < DWELL_INTERVAL_TICKS) {
+            return false;
+        }
+        PlayerQuestData data = QuestProgressStore.get().getPlayer(player.getUUID());
+        if (!data.hasActiveQuest()) {
+            return false;
+        }
+        QuestLocationIndex locations = QuestManager.get().getLocationIndex(data.getActiveQuestId());
+        if (locations.isEmpty()) {
+            return false;
+        }
+        ResourceLocation dimension = player.level().dimension().location();
+        long blockPos = player.blockPosition().asLong();
+        if (blockPos != state.blockPos || !dimension.equals(state.dimension) || locations != state.locations) {
+            state.blockPos = blockPos;
+            state.dimension = dimension;
+            state.locations = locations;
+            state.hasCandidates = locations.hasCandidates(dimension, player.getX(), player.getZ());
+        }
+        if (!state.hasCandidates) {
+            return false;
+        }
+        state.evaluatedAt = player.tickCount;
+        return true;
+    }
+
+    // Get the biome key at a position, resolving it only when the player entered another block or dimension.
+    // Goes through the BiomeManager like Level.getBiome, so its fuzzy zoom matches what F3 shows near borders;
+    // that zoom can differ between blocks of one quart, so the cache is keyed by block.
+    public ResourceKey<Biome> getBiome(ServerPlayer player, ServerLevel level, double x, double y, double z) {
+        PlayerState state = getState(player.getUUID());
+        state.biomePos.set(Mth.floor(x), Mth.floor(y), Mth.floor(z));
+        long blockPos = state.biomePos.asLong();
+        if (blockPos != state.biomeBlock || level.dimension() != state.biomeLevel) {
+            state.biomeBlock = blockPos;
+            state.biomeLevel = level.dimension();
+            state.biome = level.getBiomeManager().getBiome(state.biomePos).unwrapKey().orElse(null);
+        }
+        return state.biome;
+    }
+
+    // Forget a player's movement state.
+    public void drop(UUID playerId) {
+        states.remove(playerId);
+    }
+
+    private PlayerState getState(UUID playerId) {
+        PlayerState state = states.get(playerId);
+        if (state == null) {
+            state = new PlayerState();
+            states.put(playerId, state);
+        }
+        return state;
+    }
+
+    // Last sampled position and resolved biome of a player.
+    private static final class PlayerState {
+        private long blockPos = Long.MIN_VALUE;
+        private ResourceLocation dimension;
+        private QuestLocationIndex locations;
+        private boolean hasCandidates;
+        private int evaluatedAt = Integer.MIN_VALUE / 2;
+        private final BlockPos.MutableBlockPos biomePos = new BlockPos.MutableBlockPos();
+        private long biomeBlock = Long.MIN_VALUE;
+        private ResourceKey<Level> biomeLevel;
+        private ResourceKey<Biome> biome;
+    }
+}
@@ -4,6 +4,8 @@ package net.sugar27.quests.quest;
 
 import com.google.gson.JsonObject;
 import com.google.gson.JsonParser;
+import it.unimi.dsi.fastutil.ints.IntArrayList;
+import it.unimi.dsi.fastutil.ints.IntList;
 import net.sugar27.quests.ShugaQuestsMod;
 import net.sugar27.quests.config.QuestConfigPaths;
 
@@ -12,18 +14,25 @@ import java.io.Reader;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
-import java.util.EnumMap;
 import java.util.HashMap;
-import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
-// Loads and stores quest definitions from JSON files.
+// Loads quest definitions from JSON files and publishes them as immutable catalog snapshots.
 public final class QuestManager {
     private static final QuestManager INSTANCE = new QuestManager();
-    private final Map<String, QuestDefinition> quests = new HashMap<>();
-    private final Map<QuestCriteriaType, List<QuestDefinition>> criteriaIndex = new EnumMap<>(QuestCriteriaType.class);
+    // Upper bound on parser threads; file reads stop scaling well past this on most disks.
+    private static final int MAX_LOAD_THREADS = 8;
+
+    // Replaced wholesale on reload; readers take one consistent snapshot per read without locking.
+    private volatile QuestCatalog catalog = QuestCatalog.EMPTY;
 
     // Utility singleton; use get().
     private QuestManager() {
@@ -34,85 +43,324 @@ public final class QuestManager {
         return INSTANCE;
     }
 
-    // Load all quest definitions from config.
+    // Load all quest definitions from config and publish them.
     public void loadAll() {
-        quests.clear();
-        criteriaIndex.clear();
+        publish(buildCatalog());
+    }
+
+    // Parse every quest file into a complete snapshot without publishing it; safe to call off the server thread.
+    public QuestCatalog buildCatalog() {
         try {
             Files.createDirectories(QuestConfigPaths.getQuestsDir());
             Files.createDirectories(QuestConfigPaths.getDailyDir());
         } catch (IOException ex) {
             ShugaQuestsMod.LOGGER.error("Failed to create quest config directory", ex);
-            return;
+            return catalog;
+        }
+
+        long startedAt = System.nanoTime();
+        List<Path> normalFiles = listQuestFiles(QuestConfigPaths.getQuestsDir());
+        List<Path> dailyFiles = listQuestFiles(QuestConfigPaths.getDailyDir());
+        QuestCatalog loaded = loadQuestDefinitions(normalFiles, dailyFiles);
+        validateTargets(loaded.getOrdered());
+        validatePrerequisites(loaded);
+        ShugaQuestsMod.LOGGER.info("Loaded {} quests from {} files in {} ms",
+                loaded.size(), normalFiles.size() + dailyFiles.size(), (System.nanoTime() - startedAt) / 1_000_000L);
+        return loaded;
+    }
+
+    // Build a snapshot from a compiled quest pack; its quests are already parsed, sorted and indexed by criteria type.
+    public QuestCatalog buildCatalog(QuestPackBundle.Contents pack) {
+        long startedAt = System.nanoTime();
+        QuestIdDictionary dictionary = QuestIdDictionary.get();
+        QuestCatalog.Builder builder = new QuestCatalog.Builder();
+        List<QuestDefinition> quests = pack.quests();
+        for (int i = 0; i < quests.size(); i++) {
+            QuestDefinition quest = quests.get(i);
+            builder.put(dictionary.assign(quest.id()), quest, pack.sources().get(i));
         }
+        dictionary.saveIfDirty();
+        QuestCatalog loaded = builder.criteriaIndex(pack.criteriaIndex()).build();
+        validateTargets(loaded.getOrdered());
+        validatePrerequisites(loaded);
+        ShugaQuestsMod.LOGGER.info("Loaded {} quests from the compiled quest pack in {} ms",
+                loaded.size(), (System.nanoTime() - startedAt) / 1_000_000L);
+        return loaded;
+    }
 
-        loadQuestDefinitions(QuestConfigPaths.getQuestsDir(), false);
-        loadQuestDefinitions(QuestConfigPaths.getDailyDir(), true);
-        rebuildCriteriaIndex();
-        ShugaQuestsMod.LOGGER.info("Loaded {} quests", quests.size());
+    // Make a fully built snapshot the current catalog; call on the server thread.
+    public void publish(QuestCatalog next) {
+        catalog = next;
+        QuestInterestIndex.get().clear();
+    }
+
+    // Re-parse only the given quest files and apply what changed; unreadable files keep their previous definition.
+    public CatalogChange reloadFiles(Collection<Path> files) {
+        IntArrayList upserted = new IntArrayList();
+        IntArrayList removed = new IntArrayList();
+        QuestIdDictionary dictionary = QuestIdDictionary.get();
+        QuestCatalog.Builder builder = catalog.toBuilder();
+        Path dailyDir = QuestConfigPaths.getDailyDir();
+        Map<Path, QuestDefinition> parsedFiles = new LinkedHashMap<>();
+        for (Path path : files.stream().sorted().toList()) {
+            QuestDefinition parsed = null;
+            if (Files.isRegularFile(path)) {
+                try {
+                    parsed = parseQuestFile(path, dailyDir.equals(path.getParent()));
+                } catch (Exception ex) {
+                    ShugaQuestsMod.LOGGER.error("Failed to reload quest file: {}", path, ex);
+                    continue;
+                }
+            }
+            parsedFiles.put(path, parsed);
+        }
+        // Remove first, so an id that moved between two changed files is free before its new file claims it.
+        for (Map.Entry<Path, QuestDefinition> entry : parsedFiles.entrySet()) {
+            String previousId = builder.getQuestIdAt(entry.getKey());
+            QuestDefinition parsed = entry.getValue();
+            if (previousId != null && (parsed == null || !previousId.equals(parsed.id()))) {
+                int id = dictionary.getId(previousId);
+                builder.remove(id, previousId);
+                removed.add(id);
+            }
+        }
+        for (Map.Entry<Path, QuestDefinition> entry : parsedFiles.entrySet()) {
+            Path path = entry.getKey();
+            QuestDefinition parsed = entry.getValue();
+            if (parsed == null) {
+                continue;
+            }
+            Path owner = builder.getSource(parsed.id());
+            if (owner != null && !owner.equals(path)) {
+                ShugaQuestsMod.LOGGER.error("Duplicate quest id {} in {} and {}; keeping the first", parsed.id(), owner, path);
+                continue;
+            }
+            if (parsed.equals(builder.getQuest(parsed.id()))) {
+                continue;
+            }
+            int id = dictionary.assign(parsed.id());
+            builder.put(id, parsed, path);
+            validateTargets(List.of(parsed));
+            removed.rem(id);
+            if (!upserted.contains(id)) {
+                upserted.add(id);
+            }
+        }
+        if (upserted.isEmpty() && removed.isEmpty()) {
+            return CatalogChange.NONE;
+        }
+        dictionary.saveIfDirty();
+        // Active quests recompile lazily because QuestInterestIndex compares definitions by identity.
+        catalog = builder.build();
+        validatePrerequisites(catalog);
+        ShugaQuestsMod.LOGGER.info("Reloaded quest files: {} changed, {} removed", upserted.size(), removed.size());
+        return new CatalogChange(upserted, removed);
+    }
+
+    // Get the current catalog snapshot; hold on to it to read several values consistently.
+    public QuestCatalog getCatalog() {
+        return catalog;
     }
 
     // Get a quest definition by id.
     public QuestDefinition getQuest(String id) {
-        return quests.get(id);
+        return catalog.getQuest(id);
     }
 
     // Get all quest definitions.
     public Map<String, QuestDefinition> getAll() {
-        return Collections.unmodifiableMap(quests);
+        return catalog.getAll();
+    }
+
+    // Get a quest definition by dictionary id.
+    public QuestDefinition getQuest(int id) {
+        return catalog.getQuest(id);
+    }
+
+    // Get the dictionary id of a quest, or QuestIdDictionary.NO_QUEST when it was never assigned.
+    public int getQuestId(String id) {
+        return QuestIdDictionary.get().getId(id);
+    }
+
+    // Get all quest definitions sorted by string id.
+    public List<QuestDefinition> getOrdered() {
+        return catalog.getOrdered();
+    }
+
+    // Get the quests loaded from the daily directory, in file order.
+    public List<QuestDefinition> getDailyPool() {
+        return catalog.getDailyPool();
+    }
+
+    // Get the spatial index over a quest's location criteria.
+    public QuestLocationIndex getLocationIndex(int questId) {
+        return catalog.getLocationIndex(questId);
+    }
+
+    // Get the prerequisite edges and dependents index between quests.
+    public QuestPrerequisiteGraph getPrerequisiteGraph() {
+        return catalog.getPrerequisiteGraph();
     }
 
     // Get quests indexed by criteria type.
     public List<QuestDefinition> getQuestsByCriteriaType(QuestCriteriaType type) {
-        return criteriaIndex.getOrDefault(type, List.of());
+        return catalog.getQuestsByCriteriaType(type);
     }
 
-    // Load quest JSON files from the given directory.
-    private void loadQuestDefinitions(Path dir, boolean forceDailyType) {
+    // Check whether an event target is referenced by any loaded quest.
+    public boolean isTargetRelevant(QuestCriteriaType type, int targetId) {
+        return catalog.isTargetRelevant(type, targetId);
+    }
+
+    // List quest JSON files in a directory in a stable order.
+    private static List<Path> listQuestFiles(Path dir) {
         try (var paths = Files.list(dir)) {
-            paths.filter(path -> path.toString().endsWith(".json")).forEach(path -> {
-                try (Reader reader = Files.newBufferedReader(path)) {
-                    JsonObject json = JsonParser.parseReader(reader).getAsJsonObject();
-                    QuestDefinition quest = QuestDefinition.fromJson(json);
-                    if (forceDailyType) {
-                        quest = new QuestDefinition(
-                                quest.id(),
-                                quest.titleKey(),
-                                quest.descriptionKey(),
-                                quest.category(),
-                                QuestTypes.DAILY,
-                                quest.repeatable(),
-                                quest.prerequisites(),
-                                quest.objectives(),
-                                quest.rewards()
-                        );
-                    }
-                    quests.put(quest.id(), quest);
-                } catch (Exception ex) {
-                    ShugaQuestsMod.LOGGER.error("Failed to load quest file: {}", path, ex);
-                }
-            });
+            return paths.filter(path -> path.toString().endsWith(".json")).sorted().toList();
         } catch (IOException ex) {
-            ShugaQuestsMod.LOGGER.error("Failed to list quest config directory", ex);
+            ShugaQuestsMod.LOGGER.error("Failed to list quest config directory: {}", dir, ex);
+            return List.of();
         }
     }
 
-    // Build the criteria index for fast lookup.
-    private void rebuildCriteriaIndex() {
-        for (QuestCriteriaType type : QuestCriteriaType.values()) {
-            criteriaIndex.put(type, new ArrayList<>());
+    // Parse quest files and stage them into a snapshot with dictionary ids.
+    private static QuestCatalog loadQuestDefinitions(List<Path> normalFiles, List<Path> dailyFiles) {
+        if (normalFiles.isEmpty() && dailyFiles.isEmpty()) {
+            return QuestCatalog.EMPTY;
         }
-        for (QuestDefinition quest : quests.values()) {
-            var usedTypes = new HashSet<QuestCriteriaType>();
+        Map<String, Path> sources = new HashMap<>();
+        Map<String, QuestDefinition> loaded = new HashMap<>();
+        parseQuestFiles(normalFiles, dailyFiles, sources, loaded);
+
+        // Assign dictionary ids in string id order so new ids do not depend on file layout.
+        List<String> questIds = new ArrayList<>(loaded.keySet());
+        Collections.sort(questIds);
+        QuestIdDictionary dictionary = QuestIdDictionary.get();
+        QuestCatalog.Builder builder = new QuestCatalog.Builder();
+        for (String questId : questIds) {
+            builder.put(dictionary.assign(questId), loaded.get(questId), sources.get(questId));
+        }
+        dictionary.saveIfDirty();
+        return builder.build();
+    }
+
+    // Parse quest files in parallel, then merge them in file order so duplicates resolve the same way every load.
+    static void parseQuestFiles(List<Path> normalFiles, List<Path> dailyFiles, Map<String, Path> sources, Map<String, QuestDefinition> loaded) {
+        int fileCount = normalFiles.size() + dailyFiles.size();
+        if (fileCount == 0) {
+            return;
+        }
+        int threads = Math.min(fileCount, Math.max(1, Math.min(MAX_LOAD_THREADS, Runtime.getRuntime().availableProcessors())));
+        ExecutorService executor = Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "ShugaQuests-QuestLoader");
+            thread.setDaemon(true);
+            return thread;
+        });
+        try {
+            List<Future<QuestDefinition>> normal = submitAll(executor, normalFiles, false);
+            List<Future<QuestDefinition>> daily = submitAll(executor, dailyFiles, true);
+            mergeLoaded(normalFiles, normal, sources, loaded);
+            mergeLoaded(dailyFiles, daily, sources, loaded);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static List<Future<QuestDefinition>> submitAll(ExecutorService executor, List<Path> files, boolean forceDailyType) {
+        List<Future<QuestDefinition>> futures = new ArrayList<>(files.size());
+        for (Path path : files) {
+            futures.add(executor.submit(() -> parseQuestFile(path, forceDailyType)));
+        }
+        return futures;
+    }
+
+    private static void mergeLoaded(List<Path> files, List<Future<QuestDefinition>> futures, Map<String, Path> sources, Map<String, QuestDefinition> loaded) {
+        for (int i = 0; i < files.size(); i++) {
+            Path path = files.get(i);
+            QuestDefinition quest;
+            try {
+                quest = futures.get(i).get();
+            } catch (ExecutionException ex) {
+                ShugaQuestsMod.LOGGER.error("Failed to load quest file: {}", path, ex.getCause());
+                continue;
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                ShugaQuestsMod.LOGGER.error("Interrupted while loading quest files");
+                return;
+            }
+            Path previous = sources.putIfAbsent(quest.id(), path);
+            if (previous != null) {
+                ShugaQuestsMod.LOGGER.error("Duplicate quest id {} in {} and {}; keeping the first", quest.id(), previous, path);
+                continue;
+            }
+            loaded.put(quest.id(), quest);
+        }
+    }
+
+    // Parse one quest file; runs on the loader pool, so it must not touch shared state.
+    private static QuestDefinition parseQuestFile(Path path, boolean forceDailyType) throws IOException {
+        QuestDefinition quest;
+        try (Reader reader = Files.newBufferedReader(path)) {
+            quest = QuestJsonDecoder.readDefinition(reader);
+        } catch (RuntimeException ex) {
+            quest = parseQuestTree(path, ex);
+        }
+        if (!forceDailyType) {
+            return quest;
+        }
+        return new QuestDefinition(
+                quest.id(),
+                quest.titleKey(),
+                quest.descriptionKey(),
+                quest.category(),
+                QuestTypes.DAILY,
+                quest.repeatable(),
+                quest.prerequisites(),
+                quest.objectives(),
+                quest.rewards()
+        );
+    }
+
+    // Retry a file the streaming decoder rejected with the tree-based reader, reporting the streaming error if both fail.
+    private static QuestDefinition parseQuestTree(Path path, RuntimeException streamingError) throws IOException {
+        try (Reader reader = Files.newBufferedReader(path)) {
+            JsonObject json = JsonParser.parseReader(reader).getAsJsonObject();
+            QuestDefinition quest = QuestDefinition.fromJson(json);
+            ShugaQuestsMod.LOGGER.debug("Quest file {} needed the tree-based reader: {}", path, streamingError.getMessage());
+            return quest;
+        } catch (RuntimeException ex) {
+            streamingError.addSuppressed(ex);
+            throw streamingError;
+        }
+    }
+
+    // Report criteria whose targets are not registered, since they can never match.
+    private static void validateTargets(Collection<QuestDefinition> definitions) {
+        for (QuestDefinition quest : definitions) {
             for (QuestObjective objective : quest.objectives()) {
                 for (QuestCriteria criteria : objective.criteria()) {
-                    if (usedTypes.add(criteria.type())) {
-                        criteriaIndex.get(criteria.type()).add(quest);
+                    if (QuestTargetIds.resolve(criteria) == QuestTargetIds.UNKNOWN) {
+                        ShugaQuestsMod.LOGGER.warn("Quest {} objective {} has unknown {} target {}",
+                                quest.id(), objective.id(), criteria.type(), QuestTargetIds.getTargetKey(criteria));
                     }
                 }
             }
         }
     }
-}
 
+    // Report prerequisites naming missing quests, which keep their quest locked, and prerequisite cycles.
+    private static void validatePrerequisites(QuestCatalog loaded) {
+        for (String problem : loaded.getPrerequisiteGraph().problems()) {
+            ShugaQuestsMod.LOGGER.error(problem);
+        }
+    }
 
+    // Dictionary ids of quests added or changed, and of quests removed, by an incremental reload.
+    public record CatalogChange(IntList upserted, IntList removed) {
+        public static final CatalogChange NONE = new CatalogChange(IntList.of(), IntList.of());
+
+        // Check whether the reload changed nothing.
+        public boolean isEmpty() {
+            return upserted.isEmpty() && removed.isEmpty();
+        }
+    }
+}
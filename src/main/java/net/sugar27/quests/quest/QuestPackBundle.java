@@ -0,0 +1,268 @@
+// root/src/main/java/net/sugar27/quests/quest/QuestPackBundle.java
+
+package net.sugar27.quests.quest;
+
+import net.minecraft.resources.ResourceLocation;
+import net.sugar27.quests.ShugaQuestsMod;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// Reads the binary quest pack written by QuestPackCompiler so startup can skip parsing every JSON file.
+// Layout: header, interned string table, quests in string id order, criteria index by quest ordinal, translations.
+public final class QuestPackBundle {
+    public static final String FILE_NAME = "quests.pack";
+    static final int MAGIC = 0x53515042;
+    // Bump whenever the layout or the order of an enum written by ordinal changes.
+    static final int FORMAT_VERSION = 2;
+    static final int NO_STRING = -1;
+    static final byte SOURCE_QUESTS = 0;
+    static final byte SOURCE_DAILY = 1;
+    static final String QUESTS_FOLDER = "quests";
+    static final String DAILY_FOLDER = "daily";
+    static final String LANG_FOLDER = "lang";
+
+    // Utility class; no instantiation.
+    private QuestPackBundle() {
+    }
+
+    // Get where the pack for a config root lives.
+    public static Path getPath(Path rootDir) {
+        return rootDir.resolve(FILE_NAME);
+    }
+
+    // Load the pack when no source file was added, removed, renamed or modified since it was compiled, else null.
+    public static Contents loadIfFresh(Path rootDir) {
+        Path path = getPath(rootDir);
+        if (!Files.isRegularFile(path)) {
+            return null;
+        }
+        try {
+            SourceStamp current = SourceStamp.scan(rootDir);
+            // Read into the heap rather than mapping: a mapping outlives the channel and keeps the file locked on Windows.
+            ByteBuffer buffer;
+            try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+                buffer = ByteBuffer.allocate(Math.toIntExact(channel.size()));
+                while (buffer.hasRemaining()) {
+                    if (channel.read(buffer) < 0) {
+                        throw new IOException("Quest pack ended early: " + path);
+                    }
+                }
+            }
+            buffer.flip();
+            return read(buffer, rootDir, current);
+        } catch (IOException | RuntimeException ex) {
+            ShugaQuestsMod.LOGGER.warn("Failed to read quest pack {}; loading JSON files", path, ex);
+            return null;
+        }
+    }
+
+    private static Contents read(ByteBuffer buffer, Path rootDir, SourceStamp current) {
+        if (buffer.getInt() != MAGIC || buffer.getInt() != FORMAT_VERSION) {
+            ShugaQuestsMod.LOGGER.info("Quest pack has an old format; loading JSON files");
+            return null;
+        }
+        SourceStamp stamp = new SourceStamp(buffer.getInt(), buffer.getLong());
+        if (!stamp.equals(current)) {
+            ShugaQuestsMod.LOGGER.info("Quest files changed since the pack was compiled; loading JSON files");
+            return null;
+        }
+        Reader reader = new Reader(buffer);
+
+        int questCount = buffer.getInt();
+        List<QuestDefinition> quests = new ArrayList<>(questCount);
+        List<Path> sources = new ArrayList<>(questCount);
+        for (int i = 0; i < questCount; i++) {
+            String folder = buffer.get() == SOURCE_DAILY ? DAILY_FOLDER : QUESTS_FOLDER;
+            sources.add(rootDir.resolve(folder).resolve(reader.string()));
+            quests.add(reader.definition());
+        }
+
+        int typeCount = buffer.getInt();
+        if (typeCount != QuestCriteriaType.values().length) {
+            throw new IllegalStateException("Quest pack criteria index has " + typeCount + " types");
+        }
+        Map<QuestCriteriaType, List<QuestDefinition>> criteriaIndex = new EnumMap<>(QuestCriteriaType.class);
+        for (QuestCriteriaType type : QuestCriteriaType.values()) {
+            int size = buffer.getInt();
+            List<QuestDefinition> list = new ArrayList<>(size);
+            for (int i = 0; i < size; i++) {
+                list.add(quests.get(buffer.getInt()));
+            }
+            criteriaIndex.put(type, list);
+        }
+
+        int localeCount = buffer.getInt();
+        Map<String, Map<String, String>> translations = new HashMap<>();
+        for (int i = 0; i < localeCount; i++) {
+            String locale = reader.string();
+            int size = buffer.getInt();
+            Map<String, String> entries = new HashMap<>();
+            for (int j = 0; j < size; j++) {
+                entries.put(reader.string(), reader.string());
+            }
+            translations.put(locale, entries);
+        }
+        return new Contents(quests, sources, criteriaIndex, translations);
+    }
+
+    // Quests with their source files, the prebuilt criteria index, and translations by locale.
+    public record Contents(List<QuestDefinition> quests, List<Path> sources,
+                           Map<QuestCriteriaType, List<QuestDefinition>> criteriaIndex,
+                           Map<String, Map<String, String>> translations) {
+    }
+
+    // Which source files a pack was compiled from, hashed with each file's size and modification time.
+    // Taken before parsing, so a file edited while the compiler runs leaves the pack stale rather than wrong.
+    record SourceStamp(int fileCount, long filesHash) {
+        // Scan the quest, daily and lang folders under a config root.
+        static SourceStamp scan(Path rootDir) throws IOException {
+            int fileCount = 0;
+            long filesHash = 0xcbf29ce484222325L;
+            for (String folder : List.of(QUESTS_FOLDER, DAILY_FOLDER, LANG_FOLDER)) {
+                for (Path path : listJsonFiles(rootDir.resolve(folder))) {
+                    BasicFileAttributes attributes = Files.readAttributes(path, BasicFileAttributes.class);
+                    fileCount++;
+                    filesHash = fnv(filesHash, folder + '/' + path.getFileName() + ':' + attributes.size()
+                            + ':' + attributes.lastModifiedTime().toMillis());
+                }
+            }
+            return new SourceStamp(fileCount, filesHash);
+        }
+
+        private static long fnv(long hash, String value) {
+            for (byte b : value.getBytes(StandardCharsets.UTF_8)) {
+                hash = (hash ^ (b & 0xFF)) * 0x100000001b3L;
+            }
+            return (hash ^ '\n') * 0x100000001b3L;
+        }
+    }
+
+    // List JSON files in a folder in a stable order; a missing folder has none.
+    static List<Path> listJsonFiles(Path dir) throws IOException {
+        if (!Files.isDirectory(dir)) {
+            return List.of();
+        }
+        try (var paths = Files.list(dir)) {
+            return paths.filter(path -> path.toString().endsWith(".json")).sorted().toList();
+        }
+    }
+
+    // Decodes quest records against the string table; each string and resource location is built once.
+    private static final class Reader {
+        private final ByteBuffer buffer;
+        private final String[] strings;
+        private final ResourceLocation[] resources;
+
+        private Reader(ByteBuffer buffer) {
+            this.buffer = buffer;
+            this.strings = new String[buffer.getInt()];
+            this.resources = new ResourceLocation[strings.length];
+            byte[] scratch = new byte[256];
+            for (int i = 0; i < strings.length; i++) {
+                int length = buffer.getInt();
+                if (length > scratch.length) {
+                    scratch = new byte[Math.max(length, scratch.length * 2)];
+                }
+                buffer.get(scratch, 0, length);
+                strings[i] = new String(scratch, 0, length, StandardCharsets.UTF_8);
+            }
+        }
+
+        private String string() {
+            int index = buffer.getInt();
+            return index == NO_STRING ? null : strings[index];
+        }
+
+        private ResourceLocation resource() {
+            int index = buffer.getInt();
+            if (index == NO_STRING) {
+                return null;
+            }
+            ResourceLocation resource = resources[index];
+            if (resource == null) {
+                // Validated when the pack was compiled.
+                resource = ResourceLocation.parse(strings[index]);
+                resources[index] = resource;
+            }
+            return resource;
+        }
+
+        private QuestDefinition definition() {
+            String id = string();
+            String titleKey = string();
+            String descriptionKey = string();
+            QuestCategory category = QuestCategory.values()[buffer.get()];
+            String type = string();
+            boolean repeatable = buffer.get() != 0;
+            int prerequisiteCount = buffer.getInt();
+            List<String> prerequisites = new ArrayList<>(prerequisiteCount);
+            for (int i = 0; i < prerequisiteCount; i++) {
+                prerequisites.add(string());
+            }
+            int objectiveCount = buffer.getInt();
+            List<QuestObjective> objectives = new ArrayList<>(objectiveCount);
+            for (int i = 0; i < objectiveCount; i++) {
+                objectives.add(objective());
+            }
+            int rewardCount = buffer.getInt();
+            List<QuestReward> rewards = new ArrayList<>(rewardCount);
+            for (int i = 0; i < rewardCount; i++) {
+                rewards.add(reward());
+            }
+            return new QuestDefinition(id, titleKey, descriptionKey, category, type, repeatable, prerequisites, objectives, rewards);
+        }
+
+        private QuestObjective objective() {
+            String id = string();
+            QuestLogicOperator logic = QuestLogicOperator.values()[buffer.get()];
+            int criteriaCount = buffer.getInt();
+            List<QuestCriteria> criteria = new ArrayList<>(criteriaCount);
+            for (int i = 0; i < criteriaCount; i++) {
+                criteria.add(criteria());
+            }
+            return new QuestObjective(id, logic, criteria);
+        }
+
+        private QuestCriteria criteria() {
+            QuestCriteriaType type = QuestCriteriaType.values()[buffer.get()];
+            ResourceLocation item = resource();
+            ResourceLocation block = resource();
+            ResourceLocation entity = resource();
+            int count = buffer.getInt();
+            ResourceLocation dimension = resource();
+            ResourceLocation biome = resource();
+            Double yMin = buffer.get() != 0 ? buffer.getDouble() : null;
+            Double yMax = buffer.get() != 0 ? buffer.getDouble() : null;
+            double x = buffer.getDouble();
+            double y = buffer.getDouble();
+            double z = buffer.getDouble();
+            double radius = buffer.getDouble();
+            return new QuestCriteria(type, item, block, entity, count, dimension, biome, yMin, yMax, x, y, z, radius);
+        }
+
+        private QuestReward reward() {
+            QuestRewardType type = QuestRewardType.values()[buffer.get()];
+            ResourceLocation item = resource();
+            int count = buffer.getInt();
+            int amount = buffer.getInt();
+            ResourceLocation effect = resource();
+            int duration = buffer.getInt();
+            int amplifier = buffer.getInt();
+            String command = string();
+            ResourceLocation advancement = resource();
+            return new QuestReward(type, item, count, amount, effect, duration, amplifier, command, advancement);
+        }
+    }
+}
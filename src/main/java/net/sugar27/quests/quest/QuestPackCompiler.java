@@ -0,0 +1,238 @@
+// root/src/main/java/net/sugar27/quests/quest/QuestPackCompiler.java
+
+package net.sugar27.quests.quest;
+
+import net.minecraft.SharedConstants;
+import net.minecraft.resources.ResourceLocation;
+import net.minecraft.server.Bootstrap;
+import net.sugar27.quests.ShugaQuestsMod;
+import net.sugar27.quests.server.lang.LangManager;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+
+// Compiles a quest config folder into the binary pack read by QuestPackBundle.
+// Runs in game through /questadmin compile and standalone through the compileQuestPack Gradle task, so it only touches
+// the folder it is given and never the live catalog, dictionary or translations.
+public final class QuestPackCompiler {
+    // Utility class; no instantiation.
+    private QuestPackCompiler() {
+    }
+
+    // Standalone entry point: <config root> [output file].
+    public static void main(String[] args) throws IOException {
+        if (args.length < 1) {
+            System.err.println("Usage: QuestPackCompiler <config/shuga_quests directory> [output file]");
+            System.exit(2);
+        }
+        Path rootDir = Path.of(args[0]);
+        Path output = args.length > 1 ? Path.of(args[1]) : QuestPackBundle.getPath(rootDir);
+        // Parsing resolves criteria against the vanilla registries, which only exist once the game is bootstrapped.
+        SharedConstants.tryDetectVersion();
+        Bootstrap.bootStrap();
+        Result result = compile(rootDir, output);
+        System.out.println("Compiled " + result.questCount() + " quests and " + result.localeCount()
+                + " locales into " + output + " (" + result.bytes() + " bytes)");
+    }
+
+    // Parse every quest and lang file under a config root and write them as one pack.
+    public static Result compile(Path rootDir, Path output) throws IOException {
+        QuestPackBundle.SourceStamp stamp = QuestPackBundle.SourceStamp.scan(rootDir);
+        List<Path> normalFiles = QuestPackBundle.listJsonFiles(rootDir.resolve(QuestPackBundle.QUESTS_FOLDER));
+        List<Path> dailyFiles = QuestPackBundle.listJsonFiles(rootDir.resolve(QuestPackBundle.DAILY_FOLDER));
+        Map<String, Path> sources = new HashMap<>();
+        Map<String, QuestDefinition> loaded = new HashMap<>();
+        QuestManager.parseQuestFiles(normalFiles, dailyFiles, sources, loaded);
+        List<String> questIds = new ArrayList<>(loaded.keySet());
+        Collections.sort(questIds);
+
+        Map<String, Map<String, String>> translations = new TreeMap<>();
+        for (Path path : QuestPackBundle.listJsonFiles(rootDir.resolve(QuestPackBundle.LANG_FOLDER))) {
+            Map<String, String> entries = Map.of();
+            try {
+                entries = LangManager.readLangFile(path);
+            } catch (Exception ex) {
+                ShugaQuestsMod.LOGGER.error("Failed to load lang file: {}", path, ex);
+            }
+            translations.put(LangManager.get().getLocale(path), new TreeMap<>(entries));
+        }
+
+        Writer writer = new Writer();
+        writer.out.writeInt(questIds.size());
+        Path dailyDir = rootDir.resolve(QuestPackBundle.DAILY_FOLDER);
+        for (String questId : questIds) {
+            Path source = sources.get(questId);
+            writer.out.writeByte(dailyDir.equals(source.getParent()) ? QuestPackBundle.SOURCE_DAILY : QuestPackBundle.SOURCE_QUESTS);
+            writer.string(source.getFileName().toString());
+            writer.definition(loaded.get(questId));
+        }
+
+        QuestCriteriaType[] types = QuestCriteriaType.values();
+        List<List<Integer>> criteriaIndex = new ArrayList<>(types.length);
+        for (int i = 0; i < types.length; i++) {
+            criteriaIndex.add(new ArrayList<>());
+        }
+        for (int i = 0; i < questIds.size(); i++) {
+            for (QuestCriteriaType type : QuestCatalog.getCriteriaTypes(loaded.get(questIds.get(i)))) {
+                criteriaIndex.get(type.ordinal()).add(i);
+            }
+        }
+        writer.out.writeInt(types.length);
+        for (List<Integer> ordinals : criteriaIndex) {
+            writer.out.writeInt(ordinals.size());
+            for (int ordinal : ordinals) {
+                writer.out.writeInt(ordinal);
+            }
+        }
+
+        writer.out.writeInt(translations.size());
+        for (Map.Entry<String, Map<String, String>> locale : translations.entrySet()) {
+            writer.string(locale.getKey());
+            writer.out.writeInt(locale.getValue().size());
+            for (Map.Entry<String, String> entry : locale.getValue().entrySet()) {
+                writer.string(entry.getKey());
+                writer.string(entry.getValue());
+            }
+        }
+
+        long bytes = writer.writeTo(output, stamp);
+        ShugaQuestsMod.LOGGER.info("Compiled {} quests and {} lang locales into {}", questIds.size(), translations.size(), output);
+        return new Result(questIds.size(), translations.size(), bytes);
+    }
+
+    // What a compile wrote.
+    public record Result(int questCount, int localeCount, long bytes) {
+    }
+
+    // Encodes the pack body while collecting the string table it refers to.
+    private static final class Writer {
+        private final Map<String, Integer> strings = new LinkedHashMap<>();
+        private final ByteArrayOutputStream body = new ByteArrayOutputStream();
+        private final DataOutputStream out = new DataOutputStream(body);
+
+        private void string(String value) throws IOException {
+            if (value == null) {
+                out.writeInt(QuestPackBundle.NO_STRING);
+                return;
+            }
+            Integer index = strings.get(value);
+            if (index == null) {
+                index = strings.size();
+                strings.put(value, index);
+            }
+            out.writeInt(index);
+        }
+
+        private void resource(ResourceLocation value) throws IOException {
+            string(value == null ? null : value.toString());
+        }
+
+        private void definition(QuestDefinition quest) throws IOException {
+            string(quest.id());
+            string(quest.titleKey());
+            string(quest.descriptionKey());
+            out.writeByte(Objects.requireNonNull(quest.category()).ordinal());
+            string(quest.type());
+            out.writeBoolean(quest.repeatable());
+            out.writeInt(quest.prerequisites().size());
+            for (String prerequisite : quest.prerequisites()) {
+                string(prerequisite);
+            }
+            out.writeInt(quest.objectives().size());
+            for (QuestObjective objective : quest.objectives()) {
+                string(objective.id());
+                out.writeByte(Objects.requireNonNull(objective.logic()).ordinal());
+                out.writeInt(objective.criteria().size());
+                for (QuestCriteria criteria : objective.criteria()) {
+                    criteria(criteria);
+                }
+            }
+            out.writeInt(quest.rewards().size());
+            for (QuestReward reward : quest.rewards()) {
+                reward(reward);
+            }
+        }
+
+        private void criteria(QuestCriteria criteria) throws IOException {
+            out.writeByte(Objects.requireNonNull(criteria.type()).ordinal());
+            resource(criteria.item());
+            resource(criteria.block());
+            resource(criteria.entity());
+            out.writeInt(criteria.count());
+            resource(criteria.dimension());
+            resource(criteria.biome());
+            out.writeBoolean(criteria.yMin() != null);
+            if (criteria.yMin() != null) {
+                out.writeDouble(criteria.yMin());
+            }
+            out.writeBoolean(criteria.yMax() != null);
+            if (criteria.yMax() != null) {
+                out.writeDouble(criteria.yMax());
+            }
+            out.writeDouble(criteria.x());
+            out.writeDouble(criteria.y());
+            out.writeDouble(criteria.z());
+            out.writeDouble(criteria.radius());
+        }
+
+        private void reward(QuestReward reward) throws IOException {
+            out.writeByte(Objects.requireNonNull(reward.type()).ordinal());
+            resource(reward.item());
+            out.writeInt(reward.count());
+            out.writeInt(reward.amount());
+            resource(reward.effect());
+            out.writeInt(reward.duration());
+            out.writeInt(reward.amplifier());
+            string(reward.command());
+            resource(reward.advancement());
+        }
+
+        // Write header, string table and body to a temp file, then swap it in so a running server never reads half a pack.
+        private long writeTo(Path output, QuestPackBundle.SourceStamp stamp) throws IOException {
+            Path parent = output.toAbsolutePath().getParent();
+            Files.createDirectories(parent);
+            Path tempFile = Files.createTempFile(parent, "quests", ".tmp");
+            try {
+                try (OutputStream stream = Files.newOutputStream(tempFile);
+                     DataOutputStream file = new DataOutputStream(new BufferedOutputStream(stream))) {
+                    file.writeInt(QuestPackBundle.MAGIC);
+                    file.writeInt(QuestPackBundle.FORMAT_VERSION);
+                    file.writeInt(stamp.fileCount());
+                    file.writeLong(stamp.filesHash());
+                    file.writeInt(strings.size());
+                    for (String value : strings.keySet()) {
+                        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+                        file.writeInt(bytes.length);
+                        file.write(bytes);
+                    }
+                    out.flush();
+                    body.writeTo(file);
+                }
+                try {
+                    Files.move(tempFile, output, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+                } catch (AtomicMoveNotSupportedException ex) {
+                    Files.move(tempFile, output, StandardCopyOption.REPLACE_EXISTING);
+                }
+                return Files.size(output);
+            } finally {
+                Files.deleteIfExists(tempFile);
+            }
+        }
+    }
+}
@@ -0,0 +1,148 @@
+// root/src/main/java/net/sugar27/quests/quest/QuestPrerequisiteGraph.java
+
+package net.sugar27.quests.quest;
+
+import it.unimi.dsi.fastutil.ints.Int2IntMap;
+import it.unimi.dsi.fastutil.ints.Int2IntOpenHashMap;
+import it.unimi.dsi.fastutil.ints.Int2ObjectMap;
+import it.unimi.dsi.fastutil.ints.Int2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.ints.IntArrayFIFOQueue;
+import it.unimi.dsi.fastutil.ints.IntArrayList;
+import it.unimi.dsi.fastutil.ints.IntCollection;
+import it.unimi.dsi.fastutil.ints.IntList;
+import it.unimi.dsi.fastutil.ints.IntOpenHashSet;
+import it.unimi.dsi.fastutil.ints.IntSet;
+import it.unimi.dsi.fastutil.objects.Object2IntMap;
+import it.unimi.dsi.fastutil.objects.Object2IntOpenHashMap;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.IntPredicate;
+
+// Prerequisite edges between quests by dictionary id, with the reverse dependents index used to find unlocks.
+// Built once per catalog on both sides; a quest naming a missing prerequisite can never be unlocked.
+public final class QuestPrerequisiteGraph {
+    public static final QuestPrerequisiteGraph EMPTY = build(new Int2ObjectOpenHashMap<>());
+    private static final int[] NONE = new int[0];
+
+    private final Int2ObjectMap<int[]> prerequisites = new Int2ObjectOpenHashMap<>();
+    private final Int2ObjectMap<int[]> dependents = new Int2ObjectOpenHashMap<>();
+    private final IntSet blocked = new IntOpenHashSet();
+    private final List<String> problems = new ArrayList<>();
+
+    private QuestPrerequisiteGraph() {
+    }
+
+    // Resolve every quest's prerequisites and collect missing references and cycles as problems.
+    public static QuestPrerequisiteGraph build(Int2ObjectMap<QuestDefinition> questsById) {
+        QuestPrerequisiteGraph graph = new QuestPrerequisiteGraph();
+        Object2IntMap<String> ids = new Object2IntOpenHashMap<>();
+        ids.defaultReturnValue(QuestIdDictionary.NO_QUEST);
+        for (Int2ObjectMap.Entry<QuestDefinition> entry : questsById.int2ObjectEntrySet()) {
+            ids.put(entry.getValue().id(), entry.getIntKey());
+        }
+
+        Int2ObjectMap<IntList> reverse = new Int2ObjectOpenHashMap<>();
+        for (Int2ObjectMap.Entry<QuestDefinition> entry : questsById.int2ObjectEntrySet()) {
+            QuestDefinition quest = entry.getValue();
+            if (quest.prerequisites().isEmpty()) {
+                continue;
+            }
+            IntArrayList resolved = new IntArrayList(quest.prerequisites().size());
+            for (String prerequisiteId : quest.prerequisites()) {
+                int prerequisite = ids.getInt(prerequisiteId);
+                if (prerequisite == QuestIdDictionary.NO_QUEST) {
+                    graph.blocked.add(entry.getIntKey());
+                    graph.problems.add("Quest " + quest.id() + " requires unknown quest " + prerequisiteId);
+                } else if (!resolved.contains(prerequisite)) {
+                    resolved.add(prerequisite);
+                    reverse.computeIfAbsent(prerequisite, key -> new IntArrayList()).add(entry.getIntKey());
+                }
+            }
+            graph.prerequisites.put(entry.getIntKey(), resolved.toIntArray());
+        }
+        for (Int2ObjectMap.Entry<IntList> entry : reverse.int2ObjectEntrySet()) {
+            graph.dependents.put(entry.getIntKey(), entry.getValue().toIntArray());
+        }
+        graph.findCycles(questsById);
+        return graph;
+    }
+
+    // Peel off quests whose prerequisites are all acyclic; whatever remains is in or behind a cycle.
+    private void findCycles(Int2ObjectMap<QuestDefinition> questsById) {
+        Int2IntMap pending = new Int2IntOpenHashMap();
+        IntArrayFIFOQueue ready = new IntArrayFIFOQueue();
+        for (int questId : questsById.keySet()) {
+            int count = prerequisitesOf(questId).length;
+            if (count == 0) {
+                ready.enqueue(questId);
+            } else {
+                pending.put(questId, count);
+            }
+        }
+        while (!ready.isEmpty()) {
+            for (int dependent : dependentsOf(ready.dequeueInt())) {
+                int remaining = pending.get(dependent) - 1;
+                if (remaining == 0) {
+                    pending.remove(dependent);
+                    ready.enqueue(dependent);
+                } else {
+                    pending.put(dependent, remaining);
+                }
+            }
+        }
+        // Reported only; an admin grant can still break a cycle, so these quests are not blocked.
+        for (int questId : pending.keySet()) {
+            problems.add("Quest " + questsById.get(questId).id() + " is part of or depends on a prerequisite cycle");
+        }
+    }
+
+    // Get the dictionary ids a quest requires.
+    public int[] prerequisitesOf(int questId) {
+        int[] ids = prerequisites.get(questId);
+        return ids == null ? NONE : ids;
+    }
+
+    // Get the dictionary ids of quests that list this quest as a prerequisite.
+    public int[] dependentsOf(int questId) {
+        int[] ids = dependents.get(questId);
+        return ids == null ? NONE : ids;
+    }
+
+    // Check whether a quest has any prerequisites at all.
+    public boolean hasPrerequisites(int questId) {
+        return prerequisites.containsKey(questId);
+    }
+
+    // Check whether every prerequisite of a quest is completed.
+    public boolean arePrerequisitesMet(int questId, IntPredicate completed) {
+        if (blocked.contains(questId)) {
+            return false;
+        }
+        for (int prerequisite : prerequisitesOf(questId)) {
+            if (!completed.test(prerequisite)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // Collect the dependents a just-completed quest unlocked; only its dependents are checked.
+    public void collectUnlocked(int completedQuestId, IntPredicate completed, IntCollection unlocked) {
+        for (int dependent : dependentsOf(completedQuestId)) {
+            if (arePrerequisitesMet(dependent, completed)) {
+                unlocked.add(dependent);
+            }
+        }
+    }
+
+    // Check whether a quest references a missing prerequisite, so it can never unlock.
+    public boolean isBlocked(int questId) {
+        return blocked.contains(questId);
+    }
+
+    // Get the missing references and cycles found while building.
+    public List<String> problems() {
+        return problems;
+    }
+}
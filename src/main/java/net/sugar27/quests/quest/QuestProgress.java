@@ -6,27 +6,27 @@ import net.minecraft.nbt.CompoundTag;
 import net.minecraft.nbt.ListTag;
 import net.minecraft.network.FriendlyByteBuf;
 
-import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
-import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.Optional;
 
 // Tracks a single player's progress for a single quest.
 public class QuestProgress {
-    private final String questId;
+    private final int questId;
     private final Map<String, ObjectiveProgress> objectives = new HashMap<>();
     private boolean completed;
     private boolean rewardsGranted;
     private long completedAt;
 
     // Create a new progress entry for a quest.
-    public QuestProgress(String questId) {
+    public QuestProgress(int questId) {
         this.questId = questId;
     }
 
     // Get the quest id associated with this progress entry.
-    public String questId() {
+    public int questId() {
         return questId;
     }
 
@@ -41,6 +41,11 @@ public class QuestProgress {
         this.completedAt = System.currentTimeMillis();
     }
 
+    // Get when the quest was completed, in epoch milliseconds.
+    public long completedAt() {
+        return completedAt;
+    }
+
     // Check if rewards were already granted.
     public boolean rewardsGranted() {
         return rewardsGranted;
@@ -53,7 +58,14 @@ public class QuestProgress {
 
     // Get or create progress for a specific objective.
     public ObjectiveProgress getOrCreateObjective(String objectiveId, int criteriaCount) {
-        return objectives.computeIfAbsent(objectiveId, id -> new ObjectiveProgress(id, criteriaCount));
+        ObjectiveProgress objective = objectives.get(objectiveId);
+        if (objective == null) {
+            objective = new ObjectiveProgress(objectiveId, criteriaCount);
+            objectives.put(objectiveId, objective);
+        } else {
+            objective.ensureSize(criteriaCount);
+        }
+        return objective;
     }
 
     // Get objective progress for lookup.
@@ -61,10 +73,22 @@ public class QuestProgress {
         return objectives;
     }
 
+    // Create a detached copy for saving off the server thread.
+    public QuestProgress copy() {
+        QuestProgress copy = new QuestProgress(questId);
+        copy.completed = completed;
+        copy.rewardsGranted = rewardsGranted;
+        copy.completedAt = completedAt;
+        for (ObjectiveProgress objective : objectives.values()) {
+            copy.objectives.put(objective.objectiveId(), objective.copy());
+        }
+        return copy;
+    }
+
     // Serialize this progress to NBT for saving.
     public CompoundTag saveToTag() {
         CompoundTag tag = new CompoundTag();
-        tag.putString("questId", Objects.requireNonNull(questId));
+        tag.putInt("quest", questId);
         tag.putBoolean("completed", completed);
         tag.putBoolean("rewardsGranted", rewardsGranted);
         tag.putLong("completedAt", completedAt);
@@ -77,9 +101,10 @@ public class QuestProgress {
         return tag;
     }
 
-    // Deserialize quest progress from NBT.
+    // Deserialize quest progress from NBT; saves from before the id dictionary store the string id.
     public static QuestProgress loadFromTag(CompoundTag tag) {
-        QuestProgress progress = new QuestProgress(tag.getStringOr("questId", ""));
+        int questId = tag.getInt("quest").orElseGet(() -> QuestIdDictionary.get().assign(tag.getStringOr("questId", "")));
+        QuestProgress progress = new QuestProgress(questId);
         progress.completed = tag.getBooleanOr("completed", false);
         progress.rewardsGranted = tag.getBooleanOr("rewardsGranted", false);
         progress.completedAt = tag.getLongOr("completedAt", 0L);
@@ -95,7 +120,7 @@ public class QuestProgress {
 
     // Serialize this progress for networking.
     public void writeToBuf(FriendlyByteBuf buf) {
-        buf.writeUtf(Objects.requireNonNull(questId));
+        buf.writeVarInt(questId);
         buf.writeBoolean(completed);
         buf.writeBoolean(rewardsGranted);
         buf.writeLong(completedAt);
@@ -107,7 +132,7 @@ public class QuestProgress {
 
     // Deserialize progress from a network buffer.
     public static QuestProgress readFromBuf(FriendlyByteBuf buf) {
-        QuestProgress progress = new QuestProgress(buf.readUtf());
+        QuestProgress progress = new QuestProgress(buf.readVarInt());
         progress.completed = buf.readBoolean();
         progress.rewardsGranted = buf.readBoolean();
         progress.completedAt = buf.readLong();
@@ -122,15 +147,19 @@ public class QuestProgress {
     // Tracks progress for a single objective.
     public static class ObjectiveProgress {
         private final String objectiveId;
-        private final List<Integer> criteriaCounts = new ArrayList<>();
+        private int[] criteriaCounts;
         private boolean completed;
 
         // Create a new objective progress.
         public ObjectiveProgress(String objectiveId, int criteriaCount) {
             this.objectiveId = objectiveId;
-            for (int i = 0; i < criteriaCount; i++) {
-                criteriaCounts.add(0);
-            }
+            this.criteriaCounts = new int[criteriaCount];
+        }
+
+        private ObjectiveProgress(String objectiveId, int[] criteriaCounts, boolean completed) {
+            this.objectiveId = objectiveId;
+            this.criteriaCounts = criteriaCounts;
+            this.completed = completed;
         }
 
         // Get objective id.
@@ -138,9 +167,19 @@ public class QuestProgress {
             return objectiveId;
         }
 
-        // Get criteria counts.
-        public List<Integer> criteriaCounts() {
-            return criteriaCounts;
+        // Get the number of tracked criteria.
+        public int criteriaSize() {
+            return criteriaCounts.length;
+        }
+
+        // Get the count for a criteria, or 0 when it is not tracked.
+        public int getCount(int criteriaIndex) {
+            return criteriaIndex >= 0 && criteriaIndex < criteriaCounts.length ? criteriaCounts[criteriaIndex] : 0;
+        }
+
+        // Set the count for a tracked criteria.
+        public void setCount(int criteriaIndex, int count) {
+            criteriaCounts[criteriaIndex] = count;
         }
 
         // Check if objective is completed.
@@ -153,56 +192,56 @@ public class QuestProgress {
             this.completed = true;
         }
 
+        // Create a detached copy of this objective progress.
+        public ObjectiveProgress copy() {
+            return new ObjectiveProgress(objectiveId, criteriaCounts.clone(), completed);
+        }
+
+        // Grow the counts when the objective gained criteria since this progress was saved.
+        private void ensureSize(int criteriaCount) {
+            if (criteriaCounts.length < criteriaCount) {
+                criteriaCounts = Arrays.copyOf(criteriaCounts, criteriaCount);
+            }
+        }
+
         // Serialize objective progress to NBT.
         public CompoundTag saveToTag() {
             CompoundTag tag = new CompoundTag();
             tag.putString("objectiveId", Objects.requireNonNull(objectiveId));
             tag.putBoolean("completed", completed);
-            ListTag counts = new ListTag();
-            for (Integer count : criteriaCounts) {
-                CompoundTag countTag = new CompoundTag();
-                countTag.putInt("count", count);
-                counts.add(countTag);
-            }
-            tag.put("counts", counts);
+            tag.putIntArray("counts", Objects.requireNonNull(criteriaCounts.clone()));
             return tag;
         }
 
         // Deserialize objective progress from NBT.
         public static ObjectiveProgress loadFromTag(CompoundTag tag) {
+            String objectiveId = tag.getStringOr("objectiveId", "");
+            boolean completed = tag.getBooleanOr("completed", false);
+            Optional<int[]> packed = tag.getIntArray("counts");
+            if (packed.isPresent()) {
+                return new ObjectiveProgress(objectiveId, packed.get(), completed);
+            }
+            // Saves written before the int array format store one compound per count.
             ListTag countsTag = tag.getListOrEmpty("counts");
-            ObjectiveProgress progress = new ObjectiveProgress(tag.getStringOr("objectiveId", ""), countsTag.size());
-            progress.completed = tag.getBooleanOr("completed", false);
-            for (int i = 0; i < countsTag.size(); i++) {
-                CompoundTag countTag = countsTag.getCompoundOrEmpty(i);
-                progress.criteriaCounts.set(i, countTag.getIntOr("count", 0));
+            int[] counts = new int[countsTag.size()];
+            for (int i = 0; i < counts.length; i++) {
+                counts[i] = countsTag.getCompoundOrEmpty(i).getIntOr("count", 0);
             }
-            return progress;
+            return new ObjectiveProgress(objectiveId, counts, completed);
         }
 
         // Serialize objective progress for networking.
         public void writeToBuf(FriendlyByteBuf buf) {
             buf.writeUtf(Objects.requireNonNull(objectiveId));
             buf.writeBoolean(completed);
-            buf.writeVarInt(criteriaCounts.size());
-            for (Integer count : criteriaCounts) {
-                buf.writeVarInt(count);
-            }
+            buf.writeVarIntArray(Objects.requireNonNull(criteriaCounts));
         }
 
         // Deserialize objective progress from a network buffer.
         public static ObjectiveProgress readFromBuf(FriendlyByteBuf buf) {
             String id = buf.readUtf();
             boolean completed = buf.readBoolean();
-            int size = buf.readVarInt();
-            ObjectiveProgress progress = new ObjectiveProgress(id, size);
-            progress.completed = completed;
-            for (int i = 0; i < size; i++) {
-                progress.criteriaCounts.set(i, buf.readVarInt());
-            }
-            return progress;
+            return new ObjectiveProgress(id, buf.readVarIntArray(), completed);
         }
     }
 }
-
-
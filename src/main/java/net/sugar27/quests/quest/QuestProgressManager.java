@@ -2,29 +2,23 @@
 
 package net.sugar27.quests.quest;
 
-import com.mojang.serialization.Codec;
-import net.minecraft.nbt.CompoundTag;
-import net.minecraft.nbt.ListTag;
+import it.unimi.dsi.fastutil.ints.IntArrayList;
+import net.minecraft.resources.ResourceLocation;
 import net.minecraft.server.MinecraftServer;
-import net.minecraft.server.level.ServerLevel;
 import net.minecraft.server.level.ServerPlayer;
-import net.minecraft.world.level.saveddata.SavedData;
-import net.minecraft.world.level.saveddata.SavedDataType;
 import net.sugar27.quests.network.NetworkHandler;
+import net.sugar27.quests.network.QuestProgressDeltaPacket;
 import net.sugar27.quests.network.QuestSyncPacket;
 
 import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
-import java.util.UUID;
-import java.util.Objects;
-import javax.annotation.Nonnull;
 
 // Manages per-player quest progress persistence and updates.
+// Events only add to pooled accumulator entries; a sent delta hands its scratch buffers over to the payload.
 public final class QuestProgressManager {
-    private static final String DATA_NAME = "shuga_quests_progress";
-    private static final String EMPTY_QUEST_ID = "";
+    private IntArrayList changedCounts = new IntArrayList();
+    private IntArrayList completedObjectives = new IntArrayList();
+    private final IntArrayList unlockedQuests = new IntArrayList();
 
     // Update quest progress based on an event context.
     public void handleEvent(ServerPlayer player, QuestEventContext context) {
@@ -33,84 +27,177 @@ public final class QuestProgressManager {
             return;
         }
         QuestManager questManager = QuestManager.get();
-        List<QuestDefinition> quests = questManager.getQuestsByCriteriaType(context.type());
-        if (quests.isEmpty()) {
+        if (questManager.getQuestsByCriteriaType(context.type()).isEmpty()) {
             return;
         }
 
-        QuestProgressData data = QuestProgressData.get(server.overworld());
-        String activeQuestId = data.getActiveQuestId(player.getUUID());
-        if (isBlankQuestId(activeQuestId)) {
+        PlayerQuestData data = QuestProgressStore.get().getPlayer(player.getUUID());
+        if (!data.hasActiveQuest()) {
+            return;
+        }
+        QuestDefinition quest = questManager.getQuest(data.getActiveQuestId());
+        if (quest == null) {
+            return;
+        }
+        QuestInterestIndex.CompiledQuest index = QuestInterestIndex.get().resolve(player.getUUID(), quest);
+        if (!index.hasSlots(context.type()) || data.isArchived(data.getActiveQuestId())) {
+            return;
+        }
+        QuestProgress progress = data.getProgress().get(data.getActiveQuestId());
+        if (progress != null && progress.isCompleted() && !quest.repeatable()) {
             return;
         }
-        boolean dirty = false;
 
-        for (QuestDefinition quest : quests) {
-            if (!quest.id().equals(activeQuestId)) {
-                continue;
+        if (context.type() == QuestCriteriaType.LOCATION_REACHED && context.level() != null) {
+            QuestLocationIndex locations = questManager.getLocationIndex(data.getActiveQuestId());
+            ResourceLocation dimension = context.level().dimension().location();
+            accumulateSlots(player, index, locations.nearby(dimension, context.x(), context.z()), context);
+            accumulateSlots(player, index, locations.unbounded(dimension), context);
+            return;
+        }
+        accumulateSlots(player, index, index.targeted(context.type(), context.targetId()), context);
+        accumulateSlots(player, index, index.untargeted(context.type()), context);
+    }
+
+    // Apply every increment accumulated during this tick, sending at most one delta per player.
+    public void flushPending(MinecraftServer server) {
+        QuestEventAccumulator accumulator = QuestEventAccumulator.get();
+        if (accumulator.isEmpty()) {
+            return;
+        }
+        QuestProgressStore store = QuestProgressStore.get();
+        int count = accumulator.beginFlush();
+        for (int i = 0; i < count; i++) {
+            QuestEventAccumulator.PendingQuest pending = accumulator.flushingAt(i);
+            if (pending != null) {
+                applyPending(store.getPlayer(pending.player().getUUID()), pending);
             }
-            QuestProgress progress = data.getOrCreateProgress(player.getUUID(), quest.id());
-            if (progress.isCompleted() && !quest.repeatable()) {
-                continue;
+        }
+        accumulator.endFlush();
+    }
+
+    // Apply the increments accumulated for a single player, e.g. before they log out.
+    public void flushPending(ServerPlayer player) {
+        QuestEventAccumulator.PendingQuest pending = QuestEventAccumulator.get().remove(player.getUUID());
+        if (pending == null) {
+            return;
+        }
+        applyPending(QuestProgressStore.get().getPlayer(player.getUUID()), pending);
+    }
+
+    // Queue the event's increments for the given criteria slots.
+    private void accumulateSlots(ServerPlayer player, QuestInterestIndex.CompiledQuest index, List<QuestInterestIndex.Slot> slots, QuestEventContext context) {
+        for (int i = 0; i < slots.size(); i++) {
+            QuestInterestIndex.Slot slot = slots.get(i);
+            int increment = QuestCriteriaHandlers.getProgressIncrement(slot.criteria(), slot.targetId(), context);
+            if (increment > 0) {
+                QuestEventAccumulator.get().add(player, index, slot, increment);
             }
+        }
+    }
 
-            boolean questUpdated = false;
-            for (QuestObjective objective : quest.objectives()) {
-                QuestProgress.ObjectiveProgress objectiveProgress = progress.getOrCreateObjective(objective.id(), objective.criteria().size());
-                if (objectiveProgress.isCompleted()) {
+    // Apply summed increments, then evaluate completion and rewards exactly once.
+    private void applyPending(PlayerQuestData data, QuestEventAccumulator.PendingQuest pending) {
+        ServerPlayer player = pending.player();
+        QuestDefinition quest = pending.quest().quest();
+        int questId = data.getActiveQuestId();
+        if (QuestManager.get().getQuest(questId) != quest || data.isArchived(questId)) {
+            return;
+        }
+        QuestProgress progress = data.getOrCreateProgress(questId);
+        if (progress.isCompleted() && !quest.repeatable()) {
+            return;
+        }
+
+        changedCounts.clear();
+        for (int o = 0; o < quest.objectives().size(); o++) {
+            QuestObjective objective = quest.objectives().get(o);
+            QuestProgress.ObjectiveProgress objectiveProgress = progress.getOrCreateObjective(objective.id(), objective.criteria().size());
+            if (objectiveProgress.isCompleted()) {
+                continue;
+            }
+            for (int c = 0; c < objective.criteria().size(); c++) {
+                int increment = pending.increment(o, c);
+                if (increment <= 0) {
                     continue;
                 }
-                for (int i = 0; i < objective.criteria().size(); i++) {
-                    QuestCriteria criteria = objective.criteria().get(i);
-                    int increment = QuestCriteriaHandlers.getProgressIncrement(criteria, context);
-                    if (increment > 0) {
-                        int current = objectiveProgress.criteriaCounts().get(i);
-                        int updated = Math.min(criteria.count(), current + increment);
-                        objectiveProgress.criteriaCounts().set(i, updated);
-                        questUpdated = true;
-                    }
-                }
-
-                if (!objectiveProgress.isCompleted() && isObjectiveComplete(objective, objectiveProgress)) {
-                    objectiveProgress.markCompleted();
-                    questUpdated = true;
+                int current = objectiveProgress.getCount(c);
+                int updated = (int) Math.min(objective.criteria().get(c).count(), (long) current + increment);
+                if (updated != current) {
+                    objectiveProgress.setCount(c, updated);
+                    changedCounts.add(o);
+                    changedCounts.add(c);
+                    changedCounts.add(updated);
                 }
             }
+        }
+        if (changedCounts.isEmpty()) {
+            return;
+        }
 
-            if (questUpdated) {
-                dirty = true;
-                if (!progress.isCompleted() && isQuestComplete(quest, progress)) {
-                    progress.markCompleted();
-                    if (quest.id().equals(activeQuestId)) {
-                        clearActiveQuest(data, player.getUUID());
-                        activeQuestId = EMPTY_QUEST_ID;
-                    }
-                    if (!progress.rewardsGranted()) {
-                        grantRewards(player, quest, progress);
-                    }
-                    NetworkHandler.sendDeltaSync(player, quest, progress, QuestSyncPacket.NotificationType.COMPLETED, activeQuestId);
-                } else {
-                    NetworkHandler.sendDeltaSync(player, quest, progress, QuestSyncPacket.NotificationType.UPDATED, activeQuestId);
-                }
+        markCompletedObjectives(quest, progress);
+        data.setDirty();
+        int flags = 0;
+        QuestSyncPacket.NotificationType notificationType = QuestSyncPacket.NotificationType.UPDATED;
+        if (!progress.isCompleted() && isQuestComplete(quest, progress)) {
+            progress.markCompleted();
+            clearActiveQuest(data);
+            if (!progress.rewardsGranted()) {
+                grantRewards(player, quest, progress);
+            }
+            if (!quest.repeatable()) {
+                data.archive(progress);
             }
+            flags = QuestProgressDeltaPacket.FLAG_QUEST_COMPLETED | QuestProgressDeltaPacket.FLAG_REWARDS_GRANTED | QuestProgressDeltaPacket.FLAG_ACTIVE_CLEARED;
+            notificationType = QuestSyncPacket.NotificationType.COMPLETED;
+        }
+        NetworkHandler.sendProgressDelta(player, questId, flags, changedCounts.elements(), changedCounts.size(),
+                completedObjectives.elements(), completedObjectives.size(), notificationType);
+        // The payload now owns the backing arrays it was given; an empty prefix is never read, so that buffer stays.
+        changedCounts = new IntArrayList(changedCounts.size());
+        if (!completedObjectives.isEmpty()) {
+            completedObjectives = new IntArrayList();
         }
+        if (flags != 0) {
+            sendUnlocks(player, data, questId);
+        }
+    }
 
-        if (dirty) {
-            data.setDirty();
+    // Mark every objective whose criteria are now satisfied as completed, collecting the newly completed indexes.
+    private void markCompletedObjectives(QuestDefinition quest, QuestProgress progress) {
+        completedObjectives.clear();
+        for (int o = 0; o < quest.objectives().size(); o++) {
+            QuestObjective objective = quest.objectives().get(o);
+            QuestProgress.ObjectiveProgress objectiveProgress = progress.getOrCreateObjective(objective.id(), objective.criteria().size());
+            if (!objectiveProgress.isCompleted() && isObjectiveComplete(objective, objectiveProgress)) {
+                objectiveProgress.markCompleted();
+                completedObjectives.add(o);
+            }
         }
     }
 
-    // Sync all quest data to the player on login.
+    // Sync all quest data to the player; the client fetches the catalog itself if its cached copy is stale.
     public void syncFull(ServerPlayer player) {
+        syncFull(player, false);
+    }
+
+    // Sync all quest data to the player, attaching the encoded catalog when requested.
+    public void syncFull(ServerPlayer player, boolean includeCatalog) {
         MinecraftServer server = player.getServer();
         if (server == null) {
             return;
         }
         QuestManager questManager = QuestManager.get();
-        QuestProgressData data = QuestProgressData.get(server.overworld());
-        List<QuestProgress> progressList = new ArrayList<>(data.getPlayerProgress(player.getUUID()).values());
-        List<String> daily = DailyQuestManager.get().getDailyQuestIds(server);
-        NetworkHandler.sendFullSync(player, questManager.getAll().values().stream().toList(), progressList, daily, data.getActiveQuestId(player.getUUID()));
+        PlayerQuestData data = QuestProgressStore.get().getPlayer(player.getUUID());
+        List<QuestProgress> progressList = new ArrayList<>(data.getProgress().values());
+        IntArrayList daily = new IntArrayList();
+        for (String dailyQuestId : DailyQuestManager.get().getDailyQuestIds(server)) {
+            int id = questManager.getQuestId(dailyQuestId);
+            if (id != QuestIdDictionary.NO_QUEST) {
+                daily.add(id);
+            }
+        }
+        NetworkHandler.sendFullSync(player, includeCatalog, progressList, data.getArchivedQuests().toLongArray(), daily.toIntArray(), data.getActiveQuestId());
     }
 
     // Sync quest data to all connected players.
@@ -135,14 +222,14 @@ public final class QuestProgressManager {
         }
         if (objective.logic() == QuestLogicOperator.AND) {
             for (int i = 0; i < objective.criteria().size(); i++) {
-                if (objectiveProgress.criteriaCounts().get(i) < objective.criteria().get(i).count()) {
+                if (objectiveProgress.getCount(i) < objective.criteria().get(i).count()) {
                     return false;
                 }
             }
             return true;
         }
         for (int i = 0; i < objective.criteria().size(); i++) {
-            if (objectiveProgress.criteriaCounts().get(i) >= objective.criteria().get(i).count()) {
+            if (objectiveProgress.getCount(i) >= objective.criteria().get(i).count()) {
                 return true;
             }
         }
@@ -151,9 +238,10 @@ public final class QuestProgressManager {
 
     // Check if all objectives are complete for a quest.
     private boolean isQuestComplete(QuestDefinition quest, QuestProgress progress) {
-        for (QuestObjective objective : quest.objectives()) {
-            QuestProgress.ObjectiveProgress objectiveProgress = progress.getOrCreateObjective(objective.id(), objective.criteria().size());
-            if (!objectiveProgress.isCompleted()) {
+        List<QuestObjective> objectives = quest.objectives();
+        for (int o = 0; o < objectives.size(); o++) {
+            QuestProgress.ObjectiveProgress objectiveProgress = progress.objectives().get(objectives.get(o).id());
+            if (objectiveProgress == null || !objectiveProgress.isCompleted()) {
                 return false;
             }
         }
@@ -170,28 +258,37 @@ public final class QuestProgressManager {
         if (quest == null) {
             return;
         }
-        QuestProgressData data = QuestProgressData.get(server.overworld());
-        QuestProgress progress = data.getOrCreateProgress(player.getUUID(), quest.id());
+        int id = QuestManager.get().getQuestId(quest.id());
+        PlayerQuestData data = QuestProgressStore.get().getPlayer(player.getUUID());
+        if (data.isArchived(id)) {
+            return;
+        }
+        QuestProgress progress = data.getOrCreateProgress(id);
         for (QuestObjective objective : quest.objectives()) {
             QuestProgress.ObjectiveProgress objectiveProgress = progress.getOrCreateObjective(objective.id(), objective.criteria().size());
             for (int i = 0; i < objective.criteria().size(); i++) {
-                objectiveProgress.criteriaCounts().set(i, objective.criteria().get(i).count());
+                objectiveProgress.setCount(i, objective.criteria().get(i).count());
             }
             objectiveProgress.markCompleted();
         }
-        if (!progress.isCompleted()) {
+        boolean newlyCompleted = !progress.isCompleted();
+        if (newlyCompleted) {
             progress.markCompleted();
             if (!progress.rewardsGranted()) {
                 grantRewards(player, quest, progress);
             }
         }
+        if (data.getActiveQuestId() == id) {
+            clearActiveQuest(data);
+        }
+        if (!quest.repeatable()) {
+            data.archive(progress);
+        }
         data.setDirty();
-        String activeQuestId = data.getActiveQuestId(player.getUUID());
-        if (quest.id().equals(activeQuestId)) {
-            data.setActiveQuestId(player.getUUID(), "");
-            activeQuestId = "";
+        NetworkHandler.sendDeltaSync(player, progress, QuestSyncPacket.NotificationType.COMPLETED, data.getActiveQuestId());
+        if (newlyCompleted) {
+            sendUnlocks(player, data, id);
         }
-        NetworkHandler.sendDeltaSync(player, quest, progress, QuestSyncPacket.NotificationType.COMPLETED, activeQuestId);
     }
 
     // Force-complete all quests for a player.
@@ -207,15 +304,18 @@ public final class QuestProgressManager {
         if (server == null) {
             return;
         }
-        QuestProgressData data = QuestProgressData.get(server.overworld());
-        String activeQuestId = data.getActiveQuestId(player.getUUID());
-        if (isBlankQuestId(questId)) {
-            data.getPlayerProgress(player.getUUID()).clear();
-            clearActiveQuest(data, player.getUUID());
+        PlayerQuestData data = QuestProgressStore.get().getPlayer(player.getUUID());
+        if (questId == null || questId.isEmpty()) {
+            data.resetAll();
+            clearActiveQuest(data);
         } else {
-            data.getPlayerProgress(player.getUUID()).remove(questId);
-            if (questId.equals(activeQuestId)) {
-                clearActiveQuest(data, player.getUUID());
+            int id = QuestManager.get().getQuestId(questId);
+            if (id == QuestIdDictionary.NO_QUEST) {
+                return;
+            }
+            data.resetQuest(id);
+            if (data.getActiveQuestId() == id) {
+                clearActiveQuest(data);
             }
         }
         data.setDirty();
@@ -223,7 +323,7 @@ public final class QuestProgressManager {
     }
 
     // Start a quest for a player, enforcing only one active quest.
-    public void startQuest(ServerPlayer player, String questId) {
+    public void startQuest(ServerPlayer player, int questId) {
         MinecraftServer server = player.getServer();
         if (server == null) {
             return;
@@ -232,42 +332,45 @@ public final class QuestProgressManager {
         if (quest == null) {
             return;
         }
-        QuestProgressData data = QuestProgressData.get(server.overworld());
-        String activeQuestId = data.getActiveQuestId(player.getUUID());
-        boolean isAlreadyActive = hasQuestId(activeQuestId) && activeQuestId.equals(quest.id());
-        if (!isAlreadyActive && !arePrerequisitesMet(player.getUUID(), quest, data)) {
+        PlayerQuestData data = QuestProgressStore.get().getPlayer(player.getUUID());
+        int activeQuestId = data.getActiveQuestId();
+        boolean isAlreadyActive = activeQuestId == questId;
+        if (!isAlreadyActive && !QuestManager.get().getPrerequisiteGraph().arePrerequisitesMet(questId, data::isQuestCompleted)) {
+            return;
+        }
+        if (data.isArchived(questId) && !quest.repeatable()) {
             return;
         }
-        QuestProgress progress = data.getOrCreateProgress(player.getUUID(), quest.id());
+        QuestProgress progress = data.getOrCreateProgress(questId);
         if (progress.isCompleted() && !quest.repeatable()) {
             return;
         }
-        boolean switchedQuest = hasQuestId(activeQuestId) && !activeQuestId.equals(quest.id());
+        boolean switchedQuest = data.hasActiveQuest() && !isAlreadyActive;
         if (switchedQuest) {
-            data.getPlayerProgress(player.getUUID()).remove(activeQuestId);
-            clearActiveQuest(data, player.getUUID());
+            data.getProgress().remove(activeQuestId);
+            clearActiveQuest(data);
+        }
+        data.setActiveQuestId(questId);
+        if (!isAlreadyActive) {
+            // Increments queued this tick belong to the active quest; keep them when it is restarted.
+            QuestEventAccumulator.get().remove(player.getUUID());
         }
-        data.setActiveQuestId(player.getUUID(), quest.id());
+        QuestInterestIndex.get().track(player.getUUID(), quest);
         data.setDirty();
         if (switchedQuest) {
             syncFull(player);
         } else {
-            NetworkHandler.sendDeltaSync(player, quest, progress, QuestSyncPacket.NotificationType.NONE, quest.id());
+            NetworkHandler.sendDeltaSync(player, progress, QuestSyncPacket.NotificationType.NONE, questId);
         }
     }
 
-    private boolean arePrerequisitesMet(UUID playerId, QuestDefinition quest, QuestProgressData data) {
-        if (quest.prerequisites().isEmpty()) {
-            return true;
+    // Tell the player which quests a first completion unlocked; only the completed quest's dependents are checked.
+    private void sendUnlocks(ServerPlayer player, PlayerQuestData data, int questId) {
+        unlockedQuests.clear();
+        QuestManager.get().getPrerequisiteGraph().collectUnlocked(questId, data::isQuestCompleted, unlockedQuests);
+        if (!unlockedQuests.isEmpty()) {
+            NetworkHandler.sendUnlocks(player, unlockedQuests.toIntArray());
         }
-        Map<String, QuestProgress> progressMap = data.getPlayerProgress(playerId);
-        for (String prerequisiteId : quest.prerequisites()) {
-            QuestProgress prerequisiteProgress = progressMap.get(prerequisiteId);
-            if (prerequisiteProgress == null || !prerequisiteProgress.isCompleted()) {
-                return false;
-            }
-        }
-        return true;
     }
 
     /**
@@ -282,132 +385,30 @@ public final class QuestProgressManager {
      * they need to preserve progress.
      *
      * @param player the player whose quest should be stopped
-     * @param questId the id of the quest to stop and clear
+     * @param questId the dictionary id of the quest to stop and clear
      */
-    public void stopQuest(ServerPlayer player, String questId) {
+    public void stopQuest(ServerPlayer player, int questId) {
         MinecraftServer server = player.getServer();
-        if (server == null || isBlankQuestId(questId)) {
+        if (server == null || questId == QuestIdDictionary.NO_QUEST) {
             return;
         }
         QuestDefinition quest = QuestManager.get().getQuest(questId);
         if (quest == null) {
             return;
         }
-        QuestProgressData data = QuestProgressData.get(server.overworld());
-        String activeQuestId = data.getActiveQuestId(player.getUUID());
-        if (!quest.id().equals(activeQuestId)) {
+        PlayerQuestData data = QuestProgressStore.get().getPlayer(player.getUUID());
+        if (data.getActiveQuestId() != questId) {
             return;
         }
-        data.getPlayerProgress(player.getUUID()).remove(quest.id());
-        clearActiveQuest(data, player.getUUID());
+        data.getProgress().remove(questId);
+        clearActiveQuest(data);
         data.setDirty();
         syncFull(player);
     }
 
-    private static boolean isBlankQuestId(String questId) {
-        return questId == null || questId.isEmpty();
-    }
-
-    private static boolean hasQuestId(String questId) {
-        return !isBlankQuestId(questId);
-    }
-
-    private static void clearActiveQuest(QuestProgressData data, UUID playerId) {
-        data.setActiveQuestId(playerId, EMPTY_QUEST_ID);
-    }
-
-    // Persistent saved data for all player progress.
-    public static class QuestProgressData extends SavedData {
-        @Nonnull
-        public static final Codec<QuestProgressData> CODEC = Objects.requireNonNull(
-                Objects.requireNonNull(CompoundTag.CODEC).xmap(QuestProgressData::loadFromTag, QuestProgressData::saveToTag)
-        );
-        @Nonnull
-        public static final SavedDataType<QuestProgressData> TYPE = Objects.requireNonNull(new SavedDataType<>(DATA_NAME, QuestProgressData::new, CODEC));
-
-        private final Map<UUID, Map<String, QuestProgress>> playerProgress = new HashMap<>();
-        private final Map<UUID, String> activeQuestIds = new HashMap<>();
-
-        // Create a new progress data entry.
-        public QuestProgressData() {
-        }
-
-        // Load progress data from NBT.
-        public static QuestProgressData loadFromTag(CompoundTag tag) {
-            QuestProgressData data = new QuestProgressData();
-            ListTag players = tag.getListOrEmpty("players");
-            for (int i = 0; i < players.size(); i++) {
-                CompoundTag playerTag = players.getCompoundOrEmpty(i);
-                String uuidString = playerTag.getStringOr("uuid", "");
-                if (uuidString.isEmpty()) {
-                    continue;
-                }
-                UUID uuid = UUID.fromString(uuidString);
-                Map<String, QuestProgress> quests = new HashMap<>();
-                ListTag questTags = playerTag.getListOrEmpty("quests");
-                for (int q = 0; q < questTags.size(); q++) {
-                    QuestProgress progress = QuestProgress.loadFromTag(questTags.getCompoundOrEmpty(q));
-                    quests.put(progress.questId(), progress);
-                }
-                data.playerProgress.put(uuid, quests);
-                String activeQuestId = playerTag.getStringOr("activeQuestId", "");
-                if (!activeQuestId.isEmpty()) {
-                    data.activeQuestIds.put(uuid, activeQuestId);
-                }
-            }
-            return data;
-        }
-
-        // Save progress data to NBT.
-        public CompoundTag saveToTag() {
-            CompoundTag tag = new CompoundTag();
-            ListTag players = new ListTag();
-            for (Map.Entry<UUID, Map<String, QuestProgress>> entry : playerProgress.entrySet()) {
-                CompoundTag playerTag = new CompoundTag();
-                playerTag.putString("uuid", Objects.requireNonNull(entry.getKey().toString()));
-                ListTag questTags = new ListTag();
-                for (QuestProgress progress : entry.getValue().values()) {
-                    questTags.add(progress.saveToTag());
-                }
-                playerTag.put("quests", questTags);
-                String activeQuestId = activeQuestIds.getOrDefault(entry.getKey(), "");
-                if (!activeQuestId.isEmpty()) {
-                    playerTag.putString("activeQuestId", Objects.requireNonNull(activeQuestId));
-                }
-                players.add(playerTag);
-            }
-            tag.put("players", players);
-            return tag;
-        }
-
-        // Fetch or create the progress data for the server.
-        public static QuestProgressData get(ServerLevel level) {
-            return level.getDataStorage().computeIfAbsent(TYPE);
-        }
-
-        // Get or create progress for a player/quest pair.
-        public QuestProgress getOrCreateProgress(UUID playerId, String questId) {
-            Map<String, QuestProgress> quests = getPlayerProgress(playerId);
-            return quests.computeIfAbsent(questId, QuestProgress::new);
-        }
-
-        // Get progress map for a player.
-        public Map<String, QuestProgress> getPlayerProgress(UUID playerId) {
-            return playerProgress.computeIfAbsent(playerId, key -> new HashMap<>());
-        }
-
-        public String getActiveQuestId(UUID playerId) {
-            return activeQuestIds.getOrDefault(playerId, "");
-        }
-
-        public void setActiveQuestId(UUID playerId, String questId) {
-            if (questId == null || questId.isEmpty()) {
-                activeQuestIds.remove(playerId);
-            } else {
-                activeQuestIds.put(playerId, questId);
-            }
-        }
+    private static void clearActiveQuest(PlayerQuestData data) {
+        data.setActiveQuestId(QuestIdDictionary.NO_QUEST);
+        QuestInterestIndex.get().drop(data.playerId());
+        QuestEventAccumulator.get().remove(data.playerId());
     }
 }
-
-
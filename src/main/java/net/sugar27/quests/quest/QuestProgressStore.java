@@ -0,0 +1,302 @@
+// root/src/main/java/net/sugar27/quests/quest/QuestProgressStore.java
+
+package net.sugar27.quests.quest;
+
+import net.minecraft.nbt.CompoundTag;
+import net.minecraft.nbt.ListTag;
+import net.minecraft.nbt.NbtAccounter;
+import net.minecraft.nbt.NbtIo;
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.world.level.storage.LevelResource;
+import net.sugar27.quests.ShugaQuestsMod;
+
+import java.io.IOException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+// Loads, saves and evicts per-player quest progress files under the world data directory.
+// Saves snapshot dirty players on the server thread and encode/write them on a background executor.
+public final class QuestProgressStore {
+    private static final QuestProgressStore INSTANCE = new QuestProgressStore();
+    private static final String LEGACY_DATA_NAME = "shuga_quests_progress";
+    private static final String DICTIONARY_FILE = "quest_ids.dat";
+    private static final String FILE_EXTENSION = ".dat";
+    private static final String TEMP_EXTENSION = ".tmp";
+    private static final long EVICTION_GRACE_MS = 5L * 60L * 1000L;
+    private static final long SHUTDOWN_TIMEOUT_SECONDS = 30L;
+
+    private final Map<UUID, PlayerQuestData> loaded = new HashMap<>();
+    private final Map<UUID, Long> evictAt = new HashMap<>();
+    private final Map<UUID, CompletableFuture<Void>> pendingWrites = new ConcurrentHashMap<>();
+    private final Map<UUID, PlayerQuestData> failedWrites = new ConcurrentHashMap<>();
+    private ExecutorService saveExecutor;
+    private MinecraftServer server;
+    private Path playersDir;
+
+    // Utility singleton; use get().
+    private QuestProgressStore() {
+    }
+
+    // Get the singleton instance.
+    public static QuestProgressStore get() {
+        return INSTANCE;
+    }
+
+    // Bind the store and quest id dictionary to a server's world and migrate legacy progress data.
+    public void open(MinecraftServer server) {
+        loaded.clear();
+        evictAt.clear();
+        failedWrites.clear();
+        if (saveExecutor == null) {
+            saveExecutor = Executors.newSingleThreadExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "ShugaQuests-ProgressSave");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+        this.server = server;
+        Path dataDir = server.getWorldPath(LevelResource.ROOT).resolve("data");
+        playersDir = dataDir.resolve(ShugaQuestsMod.MODID).resolve("players");
+        try {
+            Files.createDirectories(playersDir);
+        } catch (IOException ex) {
+            ShugaQuestsMod.LOGGER.error("Failed to create quest progress directory: {}", playersDir, ex);
+        }
+        QuestIdDictionary.get().open(playersDir.resolveSibling(DICTIONARY_FILE));
+        migrateLegacy(dataDir.resolve(LEGACY_DATA_NAME + FILE_EXTENSION));
+    }
+
+    // Get a player's data, loading it from disk if it is not resident.
+    // Data loaded for an offline player, e.g. by an admin command or the daily reset, is evicted like after a logout.
+    public PlayerQuestData getPlayer(UUID playerId) {
+        PlayerQuestData data = loaded.get(playerId);
+        if (data == null) {
+            data = load(playerId);
+            if (data.archiveFinished(QuestProgressStore::isRepeatable)) {
+                data.setDirty();
+            }
+            loaded.put(playerId, data);
+            if (server != null && server.getPlayerList().getPlayer(playerId) == null) {
+                evictAt.put(playerId, System.currentTimeMillis() + EVICTION_GRACE_MS);
+            }
+        }
+        return data;
+    }
+
+    // Unknown quests count as repeatable so their progress is never archived away.
+    private static boolean isRepeatable(int questId) {
+        QuestDefinition quest = QuestManager.get().getQuest(questId);
+        return quest == null || quest.repeatable();
+    }
+
+    // Load a player's data on login and cancel any pending eviction.
+    public void onLogin(UUID playerId) {
+        getPlayer(playerId);
+        evictAt.remove(playerId);
+    }
+
+    // Schedule a player's data for eviction after the grace period.
+    public void onLogout(UUID playerId) {
+        if (loaded.containsKey(playerId)) {
+            evictAt.put(playerId, System.currentTimeMillis() + EVICTION_GRACE_MS);
+        }
+    }
+
+    // Write and drop data for players whose grace period has passed.
+    public void evictExpired() {
+        if (evictAt.isEmpty()) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        Iterator<Map.Entry<UUID, Long>> iterator = evictAt.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Map.Entry<UUID, Long> entry = iterator.next();
+            if (entry.getValue() > now) {
+                continue;
+            }
+            iterator.remove();
+            PlayerQuestData data = loaded.remove(entry.getKey());
+            if (data != null && data.isDirty()) {
+                scheduleWrite(data.snapshot());
+                data.clearDirty();
+            }
+        }
+    }
+
+    // Snapshot every dirty player and write the snapshots in the background.
+    public void saveDirty() {
+        // Player files reference dictionary ids, so the dictionary must reach disk first.
+        QuestIdDictionary.get().saveIfDirty();
+        retryFailedWrites();
+        for (PlayerQuestData data : loaded.values()) {
+            if (data.isDirty()) {
+                scheduleWrite(data.snapshot());
+                data.clearDirty();
+            }
+        }
+    }
+
+    // Save everything, wait for pending writes and unbind from the world.
+    public void close() {
+        saveDirty();
+        if (saveExecutor != null) {
+            saveExecutor.shutdown();
+            try {
+                if (!saveExecutor.awaitTermination(SHUTDOWN_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+                    ShugaQuestsMod.LOGGER.error("Timed out waiting for quest progress saves to finish");
+                }
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+            saveExecutor = null;
+        }
+        for (PlayerQuestData data : failedWrites.values()) {
+            ShugaQuestsMod.LOGGER.error("Quest progress for {} could not be saved", data.playerId());
+        }
+        failedWrites.clear();
+        pendingWrites.clear();
+        loaded.clear();
+        evictAt.clear();
+        QuestIdDictionary.get().close();
+        playersDir = null;
+        server = null;
+    }
+
+    // Encode and write a snapshot on the save executor.
+    // The target is resolved now, so a write still running after close() never sees the store unbound.
+    private void scheduleWrite(PlayerQuestData snapshot) {
+        if (playersDir == null || saveExecutor == null) {
+            return;
+        }
+        UUID playerId = snapshot.playerId();
+        Path target = getPlayerFile(playerId);
+        CompletableFuture<Void> future = CompletableFuture.runAsync(() -> {
+            if (write(target, snapshot)) {
+                failedWrites.remove(playerId);
+            } else {
+                failedWrites.put(playerId, snapshot);
+            }
+        }, saveExecutor);
+        pendingWrites.put(playerId, future);
+        future.whenComplete((result, error) -> pendingWrites.remove(playerId, future));
+    }
+
+    // Requeue snapshots whose last write failed, unless newer data is resident.
+    private void retryFailedWrites() {
+        for (Map.Entry<UUID, PlayerQuestData> entry : failedWrites.entrySet()) {
+            PlayerQuestData resident = loaded.get(entry.getKey());
+            if (resident != null) {
+                resident.setDirty();
+                failedWrites.remove(entry.getKey(), entry.getValue());
+            } else {
+                scheduleWrite(entry.getValue());
+            }
+        }
+    }
+
+    // Block until any in-flight write for the player has finished.
+    private void awaitPendingWrite(UUID playerId) {
+        CompletableFuture<Void> pending = pendingWrites.get(playerId);
+        if (pending != null) {
+            pending.join();
+        }
+    }
+
+    private PlayerQuestData load(UUID playerId) {
+        if (playersDir == null) {
+            return new PlayerQuestData(playerId);
+        }
+        awaitPendingWrite(playerId);
+        PlayerQuestData unsaved = failedWrites.remove(playerId);
+        if (unsaved != null) {
+            unsaved.setDirty();
+            return unsaved;
+        }
+        Path path = getPlayerFile(playerId);
+        if (!Files.exists(path)) {
+            return new PlayerQuestData(playerId);
+        }
+        try {
+            return PlayerQuestData.loadFromTag(playerId, NbtIo.readCompressed(path, NbtAccounter.unlimitedHeap()));
+        } catch (IOException ex) {
+            ShugaQuestsMod.LOGGER.error("Failed to load quest progress for {}", playerId, ex);
+            return new PlayerQuestData(playerId);
+        }
+    }
+
+    // Write through a temp file and rename so a crash never leaves a half-written file.
+    private boolean write(Path target, PlayerQuestData data) {
+        Path temp = target.resolveSibling(target.getFileName() + TEMP_EXTENSION);
+        try {
+            NbtIo.writeCompressed(data.saveToTag(), temp);
+            try {
+                Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } catch (AtomicMoveNotSupportedException ex) {
+                Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+            }
+            return true;
+        } catch (Exception ex) {
+            ShugaQuestsMod.LOGGER.error("Failed to save quest progress for {}", data.playerId(), ex);
+            return false;
+        }
+    }
+
+    private Path getPlayerFile(UUID playerId) {
+        return playersDir.resolve(playerId + FILE_EXTENSION);
+    }
+
+    // Split the old monolithic SavedData file into per-player files, once.
+    private void migrateLegacy(Path legacyFile) {
+        if (playersDir == null || !Files.exists(legacyFile)) {
+            return;
+        }
+        try {
+            CompoundTag root = NbtIo.readCompressed(legacyFile, NbtAccounter.unlimitedHeap());
+            ListTag players = root.getCompoundOrEmpty("data").getListOrEmpty("players");
+            List<PlayerQuestData> pending = new ArrayList<>();
+            for (int i = 0; i < players.size(); i++) {
+                CompoundTag playerTag = players.getCompoundOrEmpty(i);
+                String uuidString = playerTag.getStringOr("uuid", "");
+                if (uuidString.isEmpty()) {
+                    continue;
+                }
+                UUID playerId = UUID.fromString(uuidString);
+                if (Files.exists(getPlayerFile(playerId))) {
+                    continue;
+                }
+                pending.add(PlayerQuestData.loadFromTag(playerId, playerTag));
+            }
+            QuestIdDictionary.get().saveIfDirty();
+            int migrated = 0;
+            boolean failed = false;
+            for (PlayerQuestData data : pending) {
+                if (write(getPlayerFile(data.playerId()), data)) {
+                    migrated++;
+                } else {
+                    failed = true;
+                }
+            }
+            if (failed) {
+                ShugaQuestsMod.LOGGER.error("Legacy quest progress migration incomplete; keeping {} for the next start", legacyFile);
+                return;
+            }
+            Files.move(legacyFile, legacyFile.resolveSibling(legacyFile.getFileName() + ".migrated"));
+            ShugaQuestsMod.LOGGER.info("Migrated quest progress for {} players to per-player files", migrated);
+        } catch (Exception ex) {
+            ShugaQuestsMod.LOGGER.error("Failed to migrate legacy quest progress: {}", legacyFile, ex);
+        }
+    }
+}
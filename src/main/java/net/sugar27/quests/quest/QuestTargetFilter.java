@@ -0,0 +1,111 @@
+// root/src/main/java/net/sugar27/quests/quest/QuestTargetFilter.java
+
+package net.sugar27.quests.quest;
+
+import it.unimi.dsi.fastutil.ints.Int2IntMap;
+import it.unimi.dsi.fastutil.ints.Int2IntOpenHashMap;
+
+import java.util.BitSet;
+import java.util.EnumMap;
+import java.util.Map;
+
+// Precomputed per-type bitsets of every registry id referenced by any loaded quest.
+// Each bit is reference counted so an incremental reload can move one quest's targets without rescanning the catalog.
+public final class QuestTargetFilter {
+    private final Map<QuestCriteriaType, BitSet> targets = new EnumMap<>(QuestCriteriaType.class);
+    private final Map<QuestCriteriaType, Int2IntMap> references = new EnumMap<>(QuestCriteriaType.class);
+    private final int[] acceptsAny = new int[QuestCriteriaType.values().length];
+
+    // Build a filter over the given quest definitions.
+    public static QuestTargetFilter build(Iterable<QuestDefinition> quests) {
+        QuestTargetFilter filter = new QuestTargetFilter();
+        for (QuestDefinition quest : quests) {
+            filter.add(quest);
+        }
+        return filter;
+    }
+
+    // Check whether an event of the given type and target can matter to any quest.
+    public boolean isRelevant(QuestCriteriaType type, int targetId) {
+        if (acceptsAny[type.ordinal()] > 0) {
+            return true;
+        }
+        BitSet bits = targets.get(type);
+        return bits != null && targetId >= 0 && bits.get(targetId);
+    }
+
+    // Check whether two definitions reference the same targets, so swapping one for the other leaves the filter as is.
+    static boolean sameTargets(QuestDefinition first, QuestDefinition second) {
+        if (first.objectives().size() != second.objectives().size()) {
+            return false;
+        }
+        for (int o = 0; o < first.objectives().size(); o++) {
+            var firstCriteria = first.objectives().get(o).criteria();
+            var secondCriteria = second.objectives().get(o).criteria();
+            if (firstCriteria.size() != secondCriteria.size()) {
+                return false;
+            }
+            for (int c = 0; c < firstCriteria.size(); c++) {
+                if (firstCriteria.get(c).type() != secondCriteria.get(c).type()
+                        || QuestTargetIds.resolve(firstCriteria.get(c)) != QuestTargetIds.resolve(secondCriteria.get(c))) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    // Copy this filter so a catalog builder can patch it while the published snapshot keeps reading the original.
+    QuestTargetFilter copy() {
+        QuestTargetFilter copy = new QuestTargetFilter();
+        for (Map.Entry<QuestCriteriaType, BitSet> entry : targets.entrySet()) {
+            copy.targets.put(entry.getKey(), (BitSet) entry.getValue().clone());
+        }
+        for (Map.Entry<QuestCriteriaType, Int2IntMap> entry : references.entrySet()) {
+            copy.references.put(entry.getKey(), new Int2IntOpenHashMap(entry.getValue()));
+        }
+        System.arraycopy(acceptsAny, 0, copy.acceptsAny, 0, acceptsAny.length);
+        return copy;
+    }
+
+    // Count every target a quest references.
+    void add(QuestDefinition quest) {
+        for (QuestObjective objective : quest.objectives()) {
+            for (QuestCriteria criteria : objective.criteria()) {
+                update(criteria, 1);
+            }
+        }
+    }
+
+    // Release every target a quest referenced, clearing bits no other quest still uses.
+    void remove(QuestDefinition quest) {
+        for (QuestObjective objective : quest.objectives()) {
+            for (QuestCriteria criteria : objective.criteria()) {
+                update(criteria, -1);
+            }
+        }
+    }
+
+    private void update(QuestCriteria criteria, int delta) {
+        int targetId = QuestTargetIds.resolve(criteria);
+        if (targetId == QuestTargetIds.UNKNOWN) {
+            return;
+        }
+        if (targetId == QuestTargetIds.NONE) {
+            acceptsAny[criteria.type().ordinal()] += delta;
+            return;
+        }
+        Int2IntMap counts = references.computeIfAbsent(criteria.type(), key -> new Int2IntOpenHashMap());
+        int count = counts.get(targetId) + delta;
+        if (count > 0) {
+            counts.put(targetId, count);
+            targets.computeIfAbsent(criteria.type(), key -> new BitSet()).set(targetId);
+        } else {
+            counts.remove(targetId);
+            BitSet bits = targets.get(criteria.type());
+            if (bits != null) {
+                bits.clear(targetId);
+            }
+        }
+    }
+}
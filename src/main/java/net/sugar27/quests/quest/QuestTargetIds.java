@@ -0,0 +1,70 @@
+// root/src/main/java/net/sugar27/quests/quest/QuestTargetIds.java
+
+package net.sugar27.quests.quest;
+
+import net.minecraft.core.Registry;
+import net.minecraft.core.registries.BuiltInRegistries;
+import net.minecraft.resources.ResourceLocation;
+
+// Resolves criteria targets to numeric registry ids for int-based matching.
+public final class QuestTargetIds {
+    // The event has no target, or the criteria accepts any target.
+    public static final int NONE = -1;
+    // The criteria names a target that is not registered; it can never match.
+    public static final int UNKNOWN = -2;
+
+    // Utility class; no instantiation.
+    private QuestTargetIds() {
+    }
+
+    // Resolve a criteria target to the raw id in the registry implied by its type.
+    public static int resolve(QuestCriteria criteria) {
+        Registry<?> registry = getRegistry(criteria.type());
+        if (registry == null) {
+            return NONE;
+        }
+        ResourceLocation target = getTargetKey(criteria);
+        if (target == null) {
+            return NONE;
+        }
+        if (hasConflictingTargets(criteria, target)) {
+            return UNKNOWN;
+        }
+        return rawId(registry, target);
+    }
+
+    // Get the registry that event targets of the given type are drawn from.
+    public static Registry<?> getRegistry(QuestCriteriaType type) {
+        return switch (type) {
+            case ITEM_ACQUIRED, ITEM_CRAFTED -> BuiltInRegistries.ITEM;
+            case BLOCK_BROKEN -> BuiltInRegistries.BLOCK;
+            case ENTITY_KILLED -> BuiltInRegistries.ENTITY_TYPE;
+            case LOCATION_REACHED, CUSTOM_EVENT -> null;
+        };
+    }
+
+    // Get the first target key declared on the criteria.
+    public static ResourceLocation getTargetKey(QuestCriteria criteria) {
+        if (criteria.item() != null) {
+            return criteria.item();
+        }
+        if (criteria.block() != null) {
+            return criteria.block();
+        }
+        return criteria.entity();
+    }
+
+    // A criteria naming two different targets can never match a single event.
+    private static boolean hasConflictingTargets(QuestCriteria criteria, ResourceLocation target) {
+        return (criteria.item() != null && !criteria.item().equals(target))
+                || (criteria.block() != null && !criteria.block().equals(target))
+                || (criteria.entity() != null && !criteria.entity().equals(target));
+    }
+
+    private static <T> int rawId(Registry<T> registry, ResourceLocation key) {
+        if (!registry.containsKey(key)) {
+            return UNKNOWN;
+        }
+        return registry.getId(registry.getValue(key));
+    }
+}
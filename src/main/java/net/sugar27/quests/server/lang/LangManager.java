@@ -5,16 +5,22 @@ package net.sugar27.quests.server.lang;
 import com.google.gson.JsonElement;
 import com.google.gson.JsonObject;
 import com.google.gson.JsonParser;
+import it.unimi.dsi.fastutil.ints.IntCollection;
 import net.sugar27.quests.ShugaQuestsMod;
 import net.sugar27.quests.config.QuestConfigPaths;
+import net.sugar27.quests.quest.QuestCatalog;
+import net.sugar27.quests.quest.QuestManager;
 
 import java.io.IOException;
 import java.io.Reader;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.Collection;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Locale;
 import java.util.Map;
+import java.util.Set;
 
 // Loads server-side language JSON files and resolves quest strings.
 public final class LangManager {
@@ -22,6 +28,9 @@ public final class LangManager {
 
     private static final LangManager INSTANCE = new LangManager();
     private final Map<String, Map<String, String>> translations = new HashMap<>();
+    // Localized definitions per locale, valid for the catalog snapshot and translations version they were built from.
+    private final Map<String, LocalizedCatalog> localized = new HashMap<>();
+    private int translationsVersion;
 
     // Utility singleton; use get().
     private LangManager() {
@@ -34,38 +43,119 @@ public final class LangManager {
 
     // Reload translations from the config lang directory.
     public void reload() {
-        translations.clear();
+        load(readLangDir());
+    }
+
+    // Read every lang file in the config lang directory without touching the loaded translations; safe off the server thread.
+    public static Map<String, Map<String, String>> readLangDir() {
+        Map<String, Map<String, String>> loaded = new HashMap<>();
         Path langDir = QuestConfigPaths.getLangDir();
         try {
             Files.createDirectories(langDir);
         } catch (IOException ex) {
             ShugaQuestsMod.LOGGER.error("Failed to create lang directory", ex);
-            return;
+            return loaded;
         }
 
-        int totalKeys = 0;
         try (var paths = Files.list(langDir)) {
             for (Path path : paths.filter(file -> file.toString().endsWith(".json")).toList()) {
-                String locale = normalizeLocale(stripExtension(path.getFileName().toString()));
                 Map<String, String> entries = new HashMap<>();
-                try (Reader reader = Files.newBufferedReader(path)) {
-                    JsonObject json = JsonParser.parseReader(reader).getAsJsonObject();
-                    for (Map.Entry<String, JsonElement> entry : json.entrySet()) {
-                        entries.put(entry.getKey(), entry.getValue().getAsString());
-                    }
+                try {
+                    entries = readLangFile(path);
                 } catch (Exception ex) {
                     ShugaQuestsMod.LOGGER.error("Failed to load lang file: {}", path, ex);
                 }
-                totalKeys += entries.size();
-                translations.put(locale, entries);
+                loaded.put(INSTANCE.getLocale(path), entries);
             }
         } catch (IOException ex) {
             ShugaQuestsMod.LOGGER.error("Failed to list lang directory", ex);
         }
+        return loaded;
+    }
 
+    // Replace every translation with ones read ahead of time, such as from a compiled quest pack.
+    public void load(Map<String, Map<String, String>> loaded) {
+        translations.clear();
+        localized.clear();
+        translationsVersion++;
+        int totalKeys = 0;
+        for (Map.Entry<String, Map<String, String>> entry : loaded.entrySet()) {
+            translations.put(normalizeLocale(entry.getKey()), new HashMap<>(entry.getValue()));
+            totalKeys += entry.getValue().size();
+        }
         ShugaQuestsMod.LOGGER.info("Loaded {} lang locales with {} keys", translations.size(), totalKeys);
     }
 
+    // Re-read only the given lang files, returning the keys whose text changed per locale.
+    // A file that cannot be parsed keeps its previous translations.
+    public Map<String, Set<String>> reloadFiles(Collection<Path> files) {
+        Map<String, Set<String>> changedKeys = new HashMap<>();
+        for (Path path : files) {
+            String locale = getLocale(path);
+            Map<String, String> entries = Map.of();
+            if (Files.isRegularFile(path)) {
+                try {
+                    entries = readLangFile(path);
+                } catch (Exception ex) {
+                    ShugaQuestsMod.LOGGER.error("Failed to reload lang file: {}", path, ex);
+                    continue;
+                }
+            }
+            Map<String, String> previous = translations.getOrDefault(locale, Map.of());
+            Set<String> changed = new HashSet<>();
+            for (Map.Entry<String, String> entry : entries.entrySet()) {
+                if (!entry.getValue().equals(previous.get(entry.getKey()))) {
+                    changed.add(entry.getKey());
+                }
+            }
+            for (String key : previous.keySet()) {
+                if (!entries.containsKey(key)) {
+                    changed.add(key);
+                }
+            }
+            if (entries.isEmpty()) {
+                translations.remove(locale);
+            } else {
+                translations.put(locale, new HashMap<>(entries));
+            }
+            if (!changed.isEmpty()) {
+                changedKeys.computeIfAbsent(locale, key -> new HashSet<>()).addAll(changed);
+            }
+        }
+        if (!changedKeys.isEmpty()) {
+            translationsVersion++;
+        }
+        return changedKeys;
+    }
+
+    // Get the current catalog localized for a locale, built on first use and reused until translations or the catalog change.
+    public LocalizedCatalog getLocalized(String locale) {
+        QuestCatalog catalog = QuestManager.get().getCatalog();
+        String normalized = normalizeLocale(locale);
+        LocalizedCatalog view = localized.get(normalized);
+        if (view == null || !view.isBuiltFrom(catalog, translationsVersion)) {
+            view = LocalizedCatalog.build(catalog, normalized, this);
+            localized.put(normalized, view);
+        }
+        return view;
+    }
+
+    // Bring a locale's view up to date after an edit, re-localizing only changedIds when the view matches the state before the edit.
+    public LocalizedCatalog patchLocalized(String locale, QuestCatalog previousCatalog, int previousVersion, IntCollection changedIds) {
+        QuestCatalog catalog = QuestManager.get().getCatalog();
+        String normalized = normalizeLocale(locale);
+        LocalizedCatalog view = localized.get(normalized);
+        if (view != null && !view.isBuiltFrom(catalog, translationsVersion) && view.isBuiltFrom(previousCatalog, previousVersion)) {
+            localized.put(normalized, LocalizedCatalog.patch(view, catalog, normalized, this, changedIds));
+        }
+        return getLocalized(normalized);
+    }
+
+    // Get the version of the loaded translations; it changes whenever any translation does.
+    public int getTranslationsVersion() {
+        return translationsVersion;
+    }
+
     // Translate a key for a locale with fallback to en_us and the key itself.
     public String translate(String locale, String key) {
         if (key == null) {
@@ -101,6 +191,23 @@ public final class LangManager {
         return localeMap.get(key);
     }
 
+    // Read one lang file into a key to text map.
+    public static Map<String, String> readLangFile(Path path) throws IOException {
+        Map<String, String> entries = new HashMap<>();
+        try (Reader reader = Files.newBufferedReader(path)) {
+            JsonObject json = JsonParser.parseReader(reader).getAsJsonObject();
+            for (Map.Entry<String, JsonElement> entry : json.entrySet()) {
+                entries.put(entry.getKey(), entry.getValue().getAsString());
+            }
+        }
+        return entries;
+    }
+
+    // Get the locale a lang file provides, from its file name.
+    public String getLocale(Path path) {
+        return normalizeLocale(stripExtension(path.getFileName().toString()));
+    }
+
     private String stripExtension(String name) {
         int dot = name.lastIndexOf('.');
         return dot >= 0 ? name.substring(0, dot) : name;
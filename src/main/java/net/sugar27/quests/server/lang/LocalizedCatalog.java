@@ -0,0 +1,94 @@
+// root/src/main/java/net/sugar27/quests/server/lang/LocalizedCatalog.java
+
+package net.sugar27.quests.server.lang;
+
+import it.unimi.dsi.fastutil.ints.Int2ObjectMap;
+import it.unimi.dsi.fastutil.ints.Int2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.ints.IntCollection;
+import net.sugar27.quests.quest.QuestCatalog;
+import net.sugar27.quests.quest.QuestDefinition;
+import net.sugar27.quests.quest.QuestIdDictionary;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// A catalog's definitions with titles and descriptions resolved for one locale, as clients display them.
+// Built once per locale by LangManager and shared by every sync until translations or the catalog change.
+public final class LocalizedCatalog {
+    private final QuestCatalog source;
+    private final int translationsVersion;
+    private final List<QuestDefinition> ordered;
+    private final int[] questIds;
+    private final Int2ObjectMap<QuestDefinition> byId;
+
+    private LocalizedCatalog(QuestCatalog source, int translationsVersion, List<QuestDefinition> ordered, int[] questIds,
+                             Int2ObjectMap<QuestDefinition> byId) {
+        this.source = source;
+        this.translationsVersion = translationsVersion;
+        this.ordered = ordered;
+        this.questIds = questIds;
+        this.byId = byId;
+    }
+
+    // Localize every quest of a catalog, keeping its string id order.
+    static LocalizedCatalog build(QuestCatalog catalog, String locale, LangManager langManager) {
+        return patch(null, catalog, locale, langManager, null);
+    }
+
+    // Localize a catalog, reusing the previous view's definitions for quests outside changedIds.
+    // A null previous view or changed set localizes every quest.
+    static LocalizedCatalog patch(LocalizedCatalog previous, QuestCatalog catalog, String locale, LangManager langManager,
+                                  IntCollection changedIds) {
+        List<QuestDefinition> source = catalog.getOrdered();
+        List<QuestDefinition> ordered = new ArrayList<>(source.size());
+        int[] questIds = new int[source.size()];
+        Int2ObjectMap<QuestDefinition> byId = new Int2ObjectOpenHashMap<>(source.size());
+        QuestIdDictionary dictionary = QuestIdDictionary.get();
+        for (int i = 0; i < source.size(); i++) {
+            QuestDefinition definition = source.get(i);
+            questIds[i] = dictionary.getId(definition.id());
+            QuestDefinition reused = previous == null || changedIds == null || changedIds.contains(questIds[i])
+                    ? null
+                    : previous.byId.get(questIds[i]);
+            QuestDefinition localized = reused != null ? reused : new QuestDefinition(
+                    definition.id(),
+                    langManager.translate(locale, definition.titleKey()),
+                    langManager.translate(locale, definition.descriptionKey()),
+                    definition.category(),
+                    definition.type(),
+                    definition.repeatable(),
+                    definition.prerequisites(),
+                    definition.objectives(),
+                    definition.rewards()
+            );
+            ordered.add(localized);
+            byId.put(questIds[i], localized);
+        }
+        return new LocalizedCatalog(catalog, langManager.getTranslationsVersion(), List.copyOf(ordered), questIds, byId);
+    }
+
+    // Check whether this view was built from the given catalog and translations.
+    boolean isBuiltFrom(QuestCatalog catalog, int translationsVersion) {
+        return source == catalog && this.translationsVersion == translationsVersion;
+    }
+
+    // Get the number of quests.
+    public int size() {
+        return ordered.size();
+    }
+
+    // Get the localized quest at a position in string id order.
+    public QuestDefinition get(int index) {
+        return ordered.get(index);
+    }
+
+    // Get the dictionary id of the quest at a position in string id order.
+    public int getQuestId(int index) {
+        return questIds[index];
+    }
+
+    // Get a localized quest by dictionary id, or null.
+    public QuestDefinition getById(int questId) {
+        return byId.get(questId);
+    }
+}
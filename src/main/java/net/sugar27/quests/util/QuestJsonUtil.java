@@ -3,6 +3,7 @@
 package net.sugar27.quests.util;
 
 import com.google.gson.JsonObject;
+import com.google.gson.JsonParseException;
 import net.minecraft.resources.ResourceLocation;
 
 import java.util.Objects;
@@ -24,4 +25,17 @@ public final class QuestJsonUtil {
         }
         return ResourceLocation.tryParse(Objects.requireNonNull(json.get(key).getAsString()));
     }
+
+    // Read resource locations from JSON, rejecting malformed ids instead of dropping them.
+    public static ResourceLocation getValidResource(JsonObject json, String key) {
+        if (!json.has(key)) {
+            return null;
+        }
+        String value = Objects.requireNonNull(json.get(key).getAsString());
+        ResourceLocation location = ResourceLocation.tryParse(value);
+        if (location == null) {
+            throw new JsonParseException("Invalid resource id '" + value + "' for key '" + key + "'");
+        }
+        return location;
+    }
 }